@@ -50,6 +50,8 @@ repositories {
 }
 
 dependencies {
+    compileOnly(gradleTestKit())
+
     errorprone(libs.build.errorprone)
     errorprone(libs.build.nullaway)
 
@@ -91,6 +93,45 @@ gradlePlugin {
             description = "Adds compatibility metadata to Gradle plugins for display on the Plugin Portal"
             tags = listOf("gradle", "plugin", "compatibility")
 
+            compatibility {
+                features {
+                    configurationCache = true
+                }
+            }
+        }
+        register("compatibilityCatalogPlugin") {
+            id = "org.gradle.plugin-compatibility-catalog"
+            implementationClass = "org.gradle.plugin.compatibility.internal.CompatibilitySettingsPlugin"
+            displayName = "Gradle Plugin Compatibility Catalog Plugin"
+            description = "Provides build-wide compatibility metadata for Gradle plugins from a single catalog file"
+            tags = listOf("gradle", "plugin", "compatibility")
+
+            compatibility {
+                features {
+                    configurationCache = true
+                }
+            }
+        }
+        register("compatibilityVerificationPlugin") {
+            id = "org.gradle.plugin-compatibility-verification"
+            implementationClass = "org.gradle.plugin.compatibility.internal.CompatibilityVerificationPlugin"
+            displayName = "Gradle Plugin Compatibility Verification Plugin"
+            description = "Checks the declared Configuration Cache compatibility of Gradle plugins"
+            tags = listOf("gradle", "plugin", "compatibility")
+
+            compatibility {
+                features {
+                    configurationCache = true
+                }
+            }
+        }
+        register("compatibilityReportPlugin") {
+            id = "org.gradle.plugin-compatibility-report"
+            implementationClass = "org.gradle.plugin.compatibility.internal.CompatibilityReportPlugin"
+            displayName = "Gradle Plugin Compatibility Report Plugin"
+            description = "Aggregates the compatibility metadata of the Gradle plugins built in several projects"
+            tags = listOf("gradle", "plugin", "compatibility")
+
             compatibility {
                 features {
                     configurationCache = true
@@ -139,6 +180,10 @@ signing {
     }
 }
 
+val java8Home = javaToolchains.launcherFor {
+    languageVersion(libs.versions.jvm.productionTarget)
+}.map { it.metadata.installationPath.asFile.absolutePath }
+
 testing {
     suites {
         withType<JvmTestSuite>().configureEach {
@@ -160,6 +205,9 @@ testing {
                 implementation(libs.test.jackson.databind)  {
                     because("Needed for parsing the Gradle releases metadata JSON")
                 }
+                implementation(gradleTestKit()) {
+                    because("Needed for running the fixture builds of GradleVersionBisect")
+                }
             }
         }
 
@@ -174,17 +222,18 @@ testing {
                     testTask.configure {
                         val pluginMetadata = tasks.pluginUnderTestMetadata
                         classpath += files(pluginMetadata)
-                    }
-                }
 
-                val java8Launcher = javaToolchains.launcherFor {
-                    languageVersion(libs.versions.jvm.productionTarget)
+                        // Benchmarks are slow and their timings depend on the machine, see integBenchmark
+                        useJUnitPlatform {
+                            excludeTags("benchmark")
+                        }
+                    }
                 }
 
                 // Java 8 target - runs tests with Java 8, skips Gradle 9+
                 register("java8IntegTest") {
                     testTask.configure {
-                        systemProperty("java8Home", java8Launcher.get().metadata.installationPath.asFile.absolutePath)
+                        jvmArgumentProviders.add(LazySystemProperty("java8Home", java8Home))
                     }
                 }
             }
@@ -196,6 +245,106 @@ testing {
     }
 }
 
+/**
+ * A system property of a test JVM whose value is only known at execution time.
+ */
+class LazySystemProperty(
+    @get:Input val key: String,
+    @get:Input val value: Provider<String>
+) : CommandLineArgumentProvider {
+    override fun asArguments() = listOf("-D$key=${value.get()}")
+}
+
+/**
+ * The file a shard records the durations of its tests to, see IntegTestShards.
+ */
+class IntegTestDurationsOutput(
+    @get:OutputFile val file: Provider<RegularFile>
+) : CommandLineArgumentProvider {
+    override fun asArguments() = listOf("-DintegTest.durationsOutput=${file.get().asFile.absolutePath}")
+}
+
+/**
+ * Merges the durations recorded by the shards into the durations used for sharding, see IntegTestShards. The recorded
+ * durations replace the earlier ones of the same test, the others are kept.
+ */
+abstract class UpdateIntegTestDurations : DefaultTask() {
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val recordedDurations: ConfigurableFileCollection
+
+    @get:OutputFile
+    abstract val durations: RegularFileProperty
+
+    @TaskAction
+    fun merge() {
+        val durationsFile = durations.get().asFile
+        val merged = sortedMapOf<String, String>()
+        (listOf(durationsFile) + recordedDurations.asFileTree.files.sorted()).forEach { file ->
+            val properties = java.util.Properties()
+            file.inputStream().use(properties::load)
+            properties.stringPropertyNames().associateWithTo(merged, properties::getProperty)
+        }
+        durationsFile.writeText(
+            durationsFile.readLines().takeWhile { it.startsWith("#") }.joinToString("") { "$it\n" } +
+                merged.entries.joinToString("") { "${it.key}=${it.value}\n" }
+        )
+    }
+}
+
+// The integration tests split into shards of similar duration, which run in parallel, see IntegTestShards
+val integTestShardCount = providers.gradleProperty("integTest.shards").map(String::toInt).getOrElse(4)
+val integTestDurations = layout.buildDirectory.dir("integ-test-durations")
+val integTestShardTasks = mutableListOf<TaskProvider<Test>>()
+
+listOf("integTest", "java8IntegTest").forEach { baseTaskName ->
+    val shards = (1..integTestShardCount).map { shard ->
+        tasks.register<Test>("${baseTaskName}Shard$shard") {
+            description = "Runs shard $shard of $integTestShardCount of the $baseTaskName tests."
+            group = LifecycleBasePlugin.VERIFICATION_GROUP
+            // The same setup as the base task, taken from the sources so the base task is neither configured nor run
+            testClassesDirs = sourceSets["integTest"].output.classesDirs
+            classpath = sourceSets["integTest"].runtimeClasspath + files(tasks.pluginUnderTestMetadata)
+            if (baseTaskName == "java8IntegTest") {
+                jvmArgumentProviders.add(LazySystemProperty("java8Home", java8Home))
+            }
+            useJUnitPlatform {
+                excludeTags("benchmark")
+            }
+            systemProperty("integTest.shard", shard)
+            systemProperty("integTest.shards", integTestShardCount)
+            jvmArgumentProviders.add(IntegTestDurationsOutput(integTestDurations.map { it.file("$name.properties") }))
+        }
+    }
+    integTestShardTasks += shards
+    tasks.register("${baseTaskName}Sharded") {
+        description = "Runs the $baseTaskName tests in $integTestShardCount parallel shards."
+        group = LifecycleBasePlugin.VERIFICATION_GROUP
+        dependsOn(shards)
+    }
+}
+
+tasks.register<UpdateIntegTestDurations>("updateIntegTestDurations") {
+    description = "Merges the durations recorded by the sharded integration tests into the durations used for sharding."
+    // The recorded durations are read from the directory, so updating them doesn't run the tests
+    recordedDurations.from(integTestDurations)
+    durations = layout.projectDirectory.file("src/integTest/resources/integ-test-durations.properties")
+    mustRunAfter(integTestShardTasks)
+}
+
+val integBenchmark by tasks.registering(Test::class) {
+    description = "Runs the integration benchmarks, which report to build/reports/benchmarks."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets["integTest"].output.classesDirs
+    classpath = sourceSets["integTest"].runtimeClasspath + files(tasks.pluginUnderTestMetadata)
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    systemProperty("benchmarkReportDir", layout.buildDirectory.dir("reports/benchmarks").get().asFile)
+    // The timings are the result, so always run
+    outputs.upToDateWhen { false }
+}
+
 tasks {
     compileJava {
         // Compile production code to Java 8 bytecode with Java 8 APIs
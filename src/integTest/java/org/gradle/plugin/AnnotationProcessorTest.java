@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin;
+
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for declaring compatibility with annotations on plugin classes.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class AnnotationProcessorTest extends CompatibilityTestBase {
+
+    AnnotationProcessorTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @BeforeEach
+    void setUpBuild() throws IOException {
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            dependencies {
+                compileOnly(files(%1$s))
+                annotationProcessor(files(%1$s))
+            }
+
+            pluginCompatibility {
+                readAnnotations.set(true)
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("annotated") {
+                        id = "com.example.annotated"
+                        implementationClass = "com.example.AnnotatedPlugin"
+                    }
+                    create("overridden") {
+                        id = "com.example.overridden"
+                        implementationClass = "com.example.OverriddenPlugin"
+                        compatibility {
+                            features {
+                                configurationCache.set(false)
+                            }
+                        }
+                    }
+                }
+            }
+            """.formatted(pluginClasspath()));
+
+        withAnnotatedPlugin("AnnotatedPlugin", "@ConfigurationCacheCompatible @IsolatedProjectsCompatible(false)");
+        withAnnotatedPlugin("OverriddenPlugin", "@ConfigurationCacheCompatible @ParallelConfigurationCompatible");
+    }
+
+    @Test
+    @DisplayName("Annotations are merged into the plugin descriptors")
+    void annotationsAreMergedIntoDescriptors() {
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("com.example.annotated")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(UNSUPPORTED)
+            .hasParallelConfiguration(UNDECLARED);
+
+        // The declaration takes precedence over the annotations
+        assertPluginDescriptor("com.example.overridden")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasParallelConfiguration(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Annotations take precedence over the defaults")
+    void annotationsTakePrecedenceOverDefaults() throws IOException {
+        Files.writeString(file("gradle.properties"), """
+            org.gradle.plugin-compatibility.defaults.configurationCache=false
+            org.gradle.plugin-compatibility.defaults.isolatedProjects=true
+            org.gradle.plugin-compatibility.defaults.parallelConfiguration=true
+            """);
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("com.example.annotated")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(UNSUPPORTED)
+            .hasParallelConfiguration(SUPPORTED);
+
+        // Only the declaration itself takes precedence over the annotations
+        assertPluginDescriptor("com.example.overridden")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(SUPPORTED)
+            .hasParallelConfiguration(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Changing an annotation regenerates the descriptors")
+    void changingAnnotationRegeneratesDescriptors() throws IOException {
+        runGradle("jar");
+
+        withAnnotatedPlugin("AnnotatedPlugin", "@ConfigurationCacheCompatible(false)");
+        var result = runGradle("jar");
+
+        assertThat(result.task(":pluginDescriptors"))
+            .isNotNull()
+            .satisfies(task -> assertThat(task.getOutcome()).isEqualTo(TaskOutcome.SUCCESS));
+        assertPluginDescriptor("com.example.annotated")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(UNDECLARED);
+    }
+
+    private void withAnnotatedPlugin(String className, String annotations) throws IOException {
+        Files.writeString(file("src/main/java/com/example/" + className + ".java"), """
+            package com.example;
+
+            import org.gradle.api.Plugin;
+            import org.gradle.api.Project;
+            import org.gradle.plugin.compatibility.annotations.*;
+
+            %s
+            public class %s implements Plugin<Project> {
+                @Override
+                public void apply(Project project) {
+                }
+            }
+            """.formatted(annotations, className));
+    }
+
+    /**
+     * Returns the classpath of the plugin under test as Kotlin string literals.
+     */
+    private static String pluginClasspath() {
+        try (InputStream metadata = Objects.requireNonNull(
+            AnnotationProcessorTest.class.getClassLoader().getResourceAsStream("plugin-under-test-metadata.properties")
+        )) {
+            Properties properties = new Properties();
+            properties.load(metadata);
+            return Arrays.stream(properties.getProperty("implementation-classpath").split(File.pathSeparator))
+                .map(path -> '"' + path.replace("\\", "\\\\").replace("$", "\\$") + '"')
+                .collect(Collectors.joining(", "));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
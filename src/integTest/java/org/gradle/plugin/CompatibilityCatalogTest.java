@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the build-wide compatibility catalog provided by the settings plugin.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class CompatibilityCatalogTest extends CompatibilityTestBase {
+
+    CompatibilityCatalogTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @Override
+    protected void withSettingsFile() throws IOException {
+        Files.writeString(file("settings.gradle"), """
+            plugins {
+                id('org.gradle.plugin-compatibility-catalog')
+            }
+
+            rootProject.name = 'multi-project'
+            include('plugin-a', 'plugin-b')
+            """);
+        // Gradle 9 requires the directories of included projects to exist
+        Files.createDirectories(testProjectDir.resolve("plugin-a"));
+        Files.createDirectories(testProjectDir.resolve("plugin-b"));
+    }
+
+    @Test
+    @DisplayName("Catalog applies to plugins of all projects")
+    void catalogAppliesToAllProjects() throws IOException {
+        Files.writeString(file("gradle/plugin-compatibility.properties"), """
+            com.example.plugin-a.configurationCache=true
+            com.example.plugin-a.isolatedProjects=false
+            com.example.plugin-b.configurationCache=false
+            """);
+
+        withPluginProject("plugin-a", "com.example.plugin-a", "PluginA");
+        withPluginProject("plugin-b", "com.example.plugin-b", "PluginB");
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("plugin-a", "com.example.plugin-a")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(UNSUPPORTED);
+        assertPluginDescriptor("plugin-b", "com.example.plugin-b")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(UNDECLARED);
+    }
+
+    @Test
+    @DisplayName("Declaration takes precedence over catalog, catalog over defaults")
+    void declarationTakesPrecedenceOverCatalog() throws IOException {
+        Files.writeString(file("gradle/plugin-compatibility.properties"), """
+            com.example.plugin-a.configurationCache=true
+            com.example.plugin-a.isolatedProjects=true
+            """);
+
+        withKotlinBuildScript("plugin-a/build.gradle.kts", """
+            import org.gradle.plugin.compatibility.compatibility
+
+            pluginCompatibility {
+                defaults {
+                    isolatedProjects.set(false)
+                    parallelConfiguration.set(true)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("pluginA") {
+                        id = "com.example.plugin-a"
+                        implementationClass = "com.example.PluginA"
+                        compatibility {
+                            features {
+                                configurationCache.set(false)
+                            }
+                        }
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("plugin-a", "com.example", "PluginA");
+
+        var result = runGradle(":plugin-a:jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("plugin-a", "com.example.plugin-a")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(SUPPORTED)
+            .hasParallelConfiguration(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Changing the catalog re-runs the descriptor task")
+    void changingCatalogRerunsDescriptorTask() throws IOException {
+        var catalog = file("gradle/plugin-compatibility.properties");
+        Files.writeString(catalog, "com.example.plugin-a.configurationCache=true\n");
+        withPluginProject("plugin-a", "com.example.plugin-a", "PluginA");
+
+        runGradle(":plugin-a:jar");
+        assertPluginDescriptor("plugin-a", "com.example.plugin-a")
+            .hasConfigurationCache(SUPPORTED);
+
+        Files.writeString(catalog, "com.example.plugin-a.configurationCache=false\n");
+        var result = runGradle(":plugin-a:jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+        assertPluginDescriptor("plugin-a", "com.example.plugin-a")
+            .hasConfigurationCache(UNSUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Malformed catalog fails the build with a clear message")
+    void malformedCatalogFails() throws IOException {
+        Files.writeString(file("gradle/plugin-compatibility.properties"), """
+            com.example.plugin-a.configurationCash=true
+            """);
+        withPluginProject("plugin-a", "com.example.plugin-a", "PluginA");
+
+        var result = runGradleAndFail(":plugin-a:jar");
+
+        assertThat(result.getOutput())
+            .contains("Unknown feature 'configurationCash'")
+            .contains("Known features: configurationCache");
+    }
+
+    private void withPluginProject(String path, String pluginId, String className) throws IOException {
+        withKotlinBuildScript(path + "/build.gradle.kts", """
+            gradlePlugin {
+                plugins {
+                    create("%s") {
+                        id = "%s"
+                        implementationClass = "com.example.%s"
+                    }
+                }
+            }
+            """.formatted(className, pluginId, className));
+        createTestPluginSource(path, "com.example", className);
+    }
+}
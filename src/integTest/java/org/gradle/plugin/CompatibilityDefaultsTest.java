@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for project-wide and build-wide compatibility defaults, and for the rules by plugin ID pattern.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class CompatibilityDefaultsTest extends CompatibilityTestBase {
+
+    CompatibilityDefaultsTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @Test
+    @DisplayName("Project defaults apply to declarations without compatibility block")
+    void projectDefaultsApplyToAllDeclarations() throws IOException {
+        withKotlinBuildScript("""
+            pluginCompatibility {
+                defaults {
+                    configurationCache.set(true)
+                    isolatedProjects.set(false)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("plugin1") {
+                        id = "com.example.plugin1"
+                        implementationClass = "com.example.Plugin1"
+                    }
+                    create("plugin2") {
+                        id = "com.example.plugin2"
+                        implementationClass = "com.example.Plugin2"
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("com.example", "Plugin1");
+        createTestPluginSource("com.example", "Plugin2");
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("com.example.plugin1")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(UNSUPPORTED)
+            .hasParallelConfiguration(UNDECLARED);
+        assertPluginDescriptor("com.example.plugin2")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(UNSUPPORTED)
+            .hasParallelConfiguration(UNDECLARED);
+    }
+
+    @Test
+    @DisplayName("Declaration overrides project defaults")
+    void declarationOverridesProjectDefaults() throws IOException {
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            pluginCompatibility {
+                defaults {
+                    configurationCache.set(true)
+                    isolatedProjects.set(true)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                        compatibility {
+                            features {
+                                configurationCache.set(false)
+                            }
+                        }
+                    }
+                }
+            }
+            """);
+        createTestPluginSource();
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Project defaults work with Groovy DSL")
+    void projectDefaultsInGroovyDsl() throws IOException {
+        withGroovyBuildScript("""
+            pluginCompatibility {
+                defaults {
+                    configurationCache = true
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create('testPlugin') {
+                        id = 'org.gradle.test.plugin'
+                        implementationClass = 'org.gradle.plugin.TestPlugin'
+                    }
+                }
+            }
+            """);
+        createTestPluginSource();
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Rules apply by plugin ID pattern between declarations and project defaults")
+    void rulesApplyByPluginIdPattern() throws IOException {
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            pluginCompatibility {
+                defaults {
+                    parallelConfiguration.set(true)
+                }
+                rule("com.example.*") {
+                    configurationCache.set(false)
+                    isolatedProjects.set(true)
+                }
+                rule("com.example.internal.*") {
+                    configurationCache.set(true)
+                    parallelConfiguration.set(false)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("internal") {
+                        id = "com.example.internal.plugin"
+                        implementationClass = "com.example.Plugin1"
+                    }
+                    create("explicit") {
+                        id = "com.example.internal.explicit"
+                        implementationClass = "com.example.Plugin2"
+                        compatibility {
+                            features {
+                                configurationCache.set(false)
+                            }
+                        }
+                    }
+                    create("public") {
+                        id = "com.example.plugin"
+                        implementationClass = "com.example.Plugin1"
+                    }
+                    create("other") {
+                        id = "org.example.plugin"
+                        implementationClass = "com.example.Plugin2"
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("com.example", "Plugin1");
+        createTestPluginSource("com.example", "Plugin2");
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        // The more specific rule wins, the less specific one fills the rest
+        assertPluginDescriptor("com.example.internal.plugin")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(SUPPORTED)
+            .hasParallelConfiguration(UNSUPPORTED);
+        // The declaration takes precedence over the rules
+        assertPluginDescriptor("com.example.internal.explicit")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(SUPPORTED)
+            .hasParallelConfiguration(UNSUPPORTED);
+        assertPluginDescriptor("com.example.plugin")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(SUPPORTED)
+            .hasParallelConfiguration(SUPPORTED);
+        assertPluginDescriptor("org.example.plugin")
+            .hasConfigurationCache(UNDECLARED)
+            .hasIsolatedProjects(UNDECLARED)
+            .hasParallelConfiguration(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Rules work with Groovy DSL")
+    void rulesInGroovyDsl() throws IOException {
+        withGroovyBuildScript("""
+            pluginCompatibility {
+                rule('org.gradle.test.*') {
+                    configurationCache = true
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create('testPlugin') {
+                        id = 'org.gradle.test.plugin'
+                        implementationClass = 'org.gradle.plugin.TestPlugin'
+                    }
+                }
+            }
+            """);
+        createTestPluginSource();
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Malformed rule patterns fail the build")
+    void malformedRulePatternsFail() throws IOException {
+        withKotlinBuildScript("""
+            pluginCompatibility {
+                rule("com.*.internal") {
+                    configurationCache.set(true)
+                }
+            }
+            """);
+
+        var result = runGradleAndFail("help");
+
+        assertThat(result.getOutput()).contains("Invalid plugin ID pattern 'com.*.internal'");
+    }
+
+    @Test
+    @DisplayName("Build-wide defaults from gradle.properties apply to all projects")
+    void buildWideDefaultsFromGradleProperties() throws IOException {
+        Files.writeString(testProjectDir.resolve("settings.gradle"), """
+            rootProject.name = "multi-project"
+            include("plugin-a", "plugin-b")
+            """);
+        Files.writeString(testProjectDir.resolve("gradle.properties"), """
+            org.gradle.plugin-compatibility.defaults.configurationCache=true
+            org.gradle.plugin-compatibility.defaults.parallelConfiguration=false
+            """);
+
+        withKotlinBuildScript("plugin-a/build.gradle.kts", """
+            gradlePlugin {
+                plugins {
+                    create("pluginA") {
+                        id = "com.example.plugin-a"
+                        implementationClass = "com.example.PluginA"
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("plugin-a", "com.example", "PluginA");
+
+        withKotlinBuildScript("plugin-b/build.gradle.kts", """
+            pluginCompatibility {
+                defaults {
+                    configurationCache.set(false)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("pluginB") {
+                        id = "com.example.plugin-b"
+                        implementationClass = "com.example.PluginB"
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("plugin-b", "com.example", "PluginB");
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("plugin-a", "com.example.plugin-a")
+            .hasConfigurationCache(SUPPORTED)
+            .hasParallelConfiguration(UNSUPPORTED);
+
+        // The project defaults take precedence over the Gradle properties
+        assertPluginDescriptor("plugin-b", "com.example.plugin-b")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasParallelConfiguration(UNSUPPORTED);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the compatibility index packaged into the plugin jar.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class CompatibilityIndexTest extends CompatibilityTestBase {
+
+    CompatibilityIndexTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @Test
+    @DisplayName("Index lists all plugins of the jar")
+    void indexListsAllPlugins() throws IOException {
+        withKotlinBuildScript("""
+            pluginCompatibility {
+                defaults {
+                    isolatedProjects.set(false)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("plugin2") {
+                        id = "com.example.plugin2"
+                        implementationClass = "com.example.Plugin2"
+                    }
+                    create("plugin1") {
+                        id = "com.example.plugin1"
+                        implementationClass = "com.example.Plugin1"
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("com.example", "Plugin1");
+        createTestPluginSource("com.example", "Plugin2");
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        Path index = testProjectDir.resolve("build/resources/main/" + CompatibilityDeclarationProtocol.INDEX_RESOURCE);
+        assertThat(index).exists();
+        assertThat(Files.readString(index)).isEqualTo("""
+            com.example.plugin1=configuration-cache:UNDECLARED,isolated-projects:DECLARED_UNSUPPORTED,parallel-configuration:UNDECLARED
+            com.example.plugin2=configuration-cache:UNDECLARED,isolated-projects:DECLARED_UNSUPPORTED,parallel-configuration:UNDECLARED
+            """);
+
+        Path jar;
+        try (var jars = Files.list(testProjectDir.resolve("build/libs"))) {
+            jar = jars.findFirst().orElseThrow();
+        }
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            assertThat(zip.getEntry(CompatibilityDeclarationProtocol.INDEX_RESOURCE)).isNotNull();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the compatibility report aggregated from several projects.
+ */
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+@Execution(ExecutionMode.CONCURRENT)
+class CompatibilityReportTest extends CompatibilityTestBase {
+
+    CompatibilityReportTest(String version) {
+        super(version);
+    }
+
+    @Test
+    @DisplayName("Report lists the plugins of all aggregated projects sorted by ID")
+    void reportListsPluginsOfAllProjects() throws IOException {
+        Files.writeString(file("settings.gradle"), """
+            rootProject.name = "monorepo"
+            include("plugin-a", "plugin-b", "library")
+            """);
+        Files.writeString(file("build.gradle.kts"), """
+            plugins {
+                id("org.gradle.plugin-compatibility-report")
+            }
+
+            dependencies {
+                pluginCompatibilityAggregation(project(":plugin-a"))
+                pluginCompatibilityAggregation(project(":plugin-b"))
+                pluginCompatibilityAggregation(project(":library"))
+            }
+            """);
+        withPluginProject("plugin-a", "com.example.zeta", "configurationCache.set(true)");
+        withPluginProject("plugin-b", "com.example.alpha", "isolatedProjects.set(false)");
+        Files.writeString(file("library/build.gradle.kts"), """
+            plugins {
+                java
+            }
+            """);
+
+        runGradle("compatibilityReport");
+
+        assertThat(Files.readString(file("build/reports/plugin-compatibility/compatibility-report.json")))
+            .isEqualTo("""
+                [
+                {"plugin":"com.example.alpha","features":{"configuration-cache":"UNDECLARED",\
+                "isolated-projects":"DECLARED_UNSUPPORTED","parallel-configuration":"UNDECLARED"}},
+                {"plugin":"com.example.zeta","features":{"configuration-cache":"DECLARED_SUPPORTED",\
+                "isolated-projects":"UNDECLARED","parallel-configuration":"UNDECLARED"}}
+                ]
+                """);
+        assertThat(Files.readString(file("build/reports/plugin-compatibility/compatibility-report.html")))
+            .contains("<tr><td>com.example.alpha</td>")
+            .contains("<tr><td>com.example.zeta</td>");
+    }
+
+    @Test
+    @DisplayName("Report fails if two projects declare the same plugin ID")
+    void reportFailsOnDuplicatePluginId() throws IOException {
+        Files.writeString(file("settings.gradle"), """
+            rootProject.name = "monorepo"
+            include("plugin-a", "plugin-b")
+            """);
+        Files.writeString(file("build.gradle.kts"), """
+            plugins {
+                id("org.gradle.plugin-compatibility-report")
+            }
+
+            dependencies {
+                pluginCompatibilityAggregation(project(":plugin-a"))
+                pluginCompatibilityAggregation(project(":plugin-b"))
+            }
+            """);
+        withPluginProject("plugin-a", "com.example.same", "configurationCache.set(true)");
+        withPluginProject("plugin-b", "com.example.same", "configurationCache.set(false)");
+
+        var result = runGradleAndFail("compatibilityReport");
+
+        assertThat(result.getOutput()).contains("Plugin ID 'com.example.same' is declared in both");
+    }
+
+    @Test
+    @DisplayName("Report fails if an aggregated project can't be resolved")
+    void reportFailsOnUnresolvedProject() throws IOException {
+        Files.writeString(file("settings.gradle"), """
+            rootProject.name = "monorepo"
+            include("plugin-a", "empty")
+            """);
+        Files.writeString(file("build.gradle.kts"), """
+            plugins {
+                id("org.gradle.plugin-compatibility-report")
+            }
+
+            dependencies {
+                pluginCompatibilityAggregation(project(":plugin-a"))
+                pluginCompatibilityAggregation(project(":empty"))
+            }
+            """);
+        withPluginProject("plugin-a", "com.example.alpha", "configurationCache.set(true)");
+        Files.writeString(file("empty/build.gradle.kts"), "");
+
+        var result = runGradleAndFail("compatibilityReport");
+
+        assertThat(result.getOutput()).contains("Could not resolve project :empty");
+    }
+
+    private void withPluginProject(String path, String pluginId, String features) throws IOException {
+        withKotlinBuildScript(path + "/build.gradle.kts", """
+            import org.gradle.plugin.compatibility.compatibility
+
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "%s"
+                        implementationClass = "com.example.TestPlugin"
+                        compatibility {
+                            features {
+                                %s
+                            }
+                        }
+                    }
+                }
+            }
+            """.formatted(pluginId, features));
+        createTestPluginSource(path, "com.example", "TestPlugin");
+    }
+}
@@ -23,6 +23,7 @@ import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
 import org.gradle.util.GradleVersion;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
@@ -40,6 +41,7 @@ import static org.gradle.plugin.compatibility.internal.CompatibilityStrategy.EXT
  * Base class for compatibility plugin integration tests.
  * Provides common utilities and test helpers.
  */
+@ExtendWith(IntegTestShards.class)
 public abstract class CompatibilityTestBase {
     protected static final String SUPPORTED = CompatibilityDeclarationProtocol.DECLARED_SUPPORTED;
     protected static final String UNSUPPORTED = CompatibilityDeclarationProtocol.DECLARED_UNSUPPORTED;
@@ -193,7 +195,7 @@ public abstract class CompatibilityTestBase {
         return theFile;
     }
 
-    private GradleRunner createRunner(String... args) {
+    protected GradleRunner createRunner(String... args) {
         return GradleRunner.create()
             .withGradleVersion(gradleVersion)
             .withProjectDir(testProjectDir.toFile())
@@ -263,5 +265,15 @@ public abstract class CompatibilityTestBase {
         public PluginDescriptorAssertion hasConfigurationCache(String supportLevel) {
             return hasFeature(CompatibilityDeclarationProtocol.FEATURE_CONFIGURATION_CACHE, supportLevel);
         }
+
+        @CanIgnoreReturnValue
+        public PluginDescriptorAssertion hasIsolatedProjects(String supportLevel) {
+            return hasFeature(CompatibilityDeclarationProtocol.FEATURE_ISOLATED_PROJECTS, supportLevel);
+        }
+
+        @CanIgnoreReturnValue
+        public PluginDescriptorAssertion hasParallelConfiguration(String supportLevel) {
+            return hasFeature(CompatibilityDeclarationProtocol.FEATURE_PARALLEL_CONFIGURATION, supportLevel);
+        }
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Configuration Cache smoke test. The generated builds run on the Gradle installation that runs the test
+ * build, so no other distribution is needed.
+ */
+@ParameterizedClass
+@MethodSource("modernSyntaxGradleVersions")
+class ConfigurationCacheSmokeTestTest extends CompatibilityTestBase {
+
+    ConfigurationCacheSmokeTestTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @Test
+    @DisplayName("Plugins with Configuration Cache problems fail the smoke test")
+    void pluginsWithProblemsFail() throws IOException {
+        Files.writeString(file("build.gradle.kts"), """
+            import org.gradle.plugin.compatibility.compatibility
+
+            plugins {
+                `java-gradle-plugin`
+                id("org.gradle.plugin-compatibility-verification")
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("goodPlugin") {
+                        id = "org.gradle.test.good"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                    }
+                    create("badPlugin") {
+                        id = "org.gradle.test.bad"
+                        implementationClass = "org.gradle.plugin.BadPlugin"
+                        compatibility {
+                            features {
+                                configurationCache.set(true)
+                            }
+                        }
+                    }
+                }
+            }
+
+            tasks.configurationCacheSmokeTest {
+                gradleInstallations.from(gradle.gradleHomeDir)
+            }
+            """);
+        createTestPluginSource();
+        Files.writeString(file("src/main/java/org/gradle/plugin/BadPlugin.java"), """
+            package org.gradle.plugin;
+            import org.gradle.api.Plugin;
+            import org.gradle.api.Project;
+
+            public class BadPlugin implements Plugin<Project> {
+                @Override
+                public void apply(Project project) {
+                    project.getGradle().buildFinished(result -> { });
+                }
+            }
+            """);
+
+        var result = runGradleAndFail("configurationCacheSmokeTest");
+
+        assertThat(result.getOutput())
+            .contains("Plugins declare Configuration Cache support, but the smoke test failed for")
+            .contains("org.gradle.test.bad on Gradle " + getGradleVersion().getVersion());
+        assertThat(testProjectDir.resolve("build/reports/plugin-compatibility/configuration-cache-smoke-test.txt"))
+            .content()
+            .contains("""
+                org.gradle.test.bad: DECLARED_SUPPORTED
+                  Gradle %1$s: failed
+                    the first build failed:
+                """.formatted(getGradleVersion().getVersion()))
+            .contains("registration of listener on 'Gradle.buildFinished' is unsupported")
+            .contains("""
+                org.gradle.test.good: UNDECLARED
+                  Gradle %1$s: stored and reused
+                """.formatted(getGradleVersion().getVersion()));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the opt-in report of the configuration costs of the plugin.
+ */
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+@Execution(ExecutionMode.CONCURRENT)
+class ConfigurationCostReportTest extends CompatibilityTestBase {
+
+    private static final String REPORT = "build/reports/plugin-compatibility/configuration-costs.json";
+
+    ConfigurationCostReportTest(String version) {
+        super(version);
+    }
+
+    @Test
+    @DisplayName("Cost report is written per project when enabled")
+    void reportIsWrittenWhenEnabled() throws IOException {
+        Files.writeString(file("gradle.properties"), "org.gradle.plugin-compatibility.cost-report=true\n");
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                        compatibility {
+                            features {
+                                configurationCache.set(true)
+                            }
+                        }
+                    }
+                }
+            }
+            """);
+        createTestPluginSource();
+
+        runGradle("jar");
+
+        String report = Files.readString(file(REPORT));
+        assertThat(report)
+            .contains("\"path\": \":\"")
+            .contains("\"declarations\": 1,")
+            .contains("\"actionsStored\": 1,")
+            .contains("\"extensionsInstantiated\": 1,")
+            .containsPattern("\"applyNanos\": [1-9]")
+            .containsPattern("\"descriptorBytes\": [1-9]");
+    }
+
+    @Test
+    @DisplayName("Cost report is not written by default")
+    void reportIsDisabledByDefault() throws IOException {
+        withKotlinBuildScript("""
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                    }
+                }
+            }
+            """);
+        createTestPluginSource();
+
+        runGradle("jar");
+
+        assertThat(file(REPORT)).doesNotExist();
+    }
+}
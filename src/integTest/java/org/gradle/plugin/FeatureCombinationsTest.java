@@ -81,6 +81,62 @@ class FeatureCombinationsTest extends CompatibilityTestBase {
             .hasConfigurationCache(expectedCc);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+        "true,      false,     undefined, DECLARED_SUPPORTED,   DECLARED_UNSUPPORTED, UNDECLARED",
+        "undefined, true,      false,     UNDECLARED,           DECLARED_SUPPORTED,   DECLARED_UNSUPPORTED",
+        "false,     undefined, true,      DECLARED_UNSUPPORTED, UNDECLARED,           DECLARED_SUPPORTED",
+    })
+    @DisplayName("Features are declared independently of each other")
+    void testFeaturesAreIndependent(
+        String ccValue,
+        String ipValue,
+        String pcValue,
+        String expectedCc,
+        String expectedIp,
+        String expectedPc
+    ) throws IOException {
+        withSettingsFile();
+
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                        compatibility {
+                            features {
+                                %s
+                                %s
+                                %s
+                            }
+                        }
+                    }
+                }
+            }
+            """.formatted(
+            featureLine("configurationCache", ccValue),
+            featureLine("isolatedProjects", ipValue),
+            featureLine("parallelConfiguration", pcValue)
+        ));
+        createTestPluginSource();
+
+        var result = runGradle("jar");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(expectedCc)
+            .hasIsolatedProjects(expectedIp)
+            .hasParallelConfiguration(expectedPc);
+    }
+
+    private static String featureLine(String feature, String value) {
+        return "undefined".equals(value) ? "" : feature + ".set(" + value + ")";
+    }
+
     private String buildFeaturesBlock(String cc) {
         StringBuilder sb = new StringBuilder("features {\n");
         if (!"undefined".equals(cc)) {
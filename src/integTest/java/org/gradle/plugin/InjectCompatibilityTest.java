@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for injecting compatibility into prebuilt jars.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class InjectCompatibilityTest extends CompatibilityTestBase {
+
+    InjectCompatibilityTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @Test
+    @DisplayName("Catalog compatibility is injected into the jar")
+    void catalogCompatibilityIsInjected() throws IOException {
+        withKotlinBuildScript("""
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                    }
+                }
+            }
+
+            tasks.register<org.gradle.plugin.compatibility.tasks.InjectCompatibility>("injectCompatibility") {
+                jars.from(tasks.named("jar"))
+            }
+            """);
+        createTestPluginSource();
+        Files.writeString(file("gradle/plugin-compatibility.properties"), """
+            org.gradle.test.plugin.configurationCache=true
+            org.gradle.test.plugin.parallelConfiguration=false
+            """);
+
+        var result = runGradle("injectCompatibility");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        Path injected;
+        try (var jars = Files.list(testProjectDir.resolve("build/injectCompatibility"))) {
+            injected = jars.findFirst().orElseThrow();
+        }
+        try (ZipFile jar = new ZipFile(injected.toFile())) {
+            var entry = jar.getEntry("META-INF/gradle-plugins/org.gradle.test.plugin.properties");
+            String descriptor = new String(jar.getInputStream(entry).readAllBytes(), StandardCharsets.ISO_8859_1);
+            assertThat(descriptor)
+                .contains("implementation-class=org.gradle.plugin.TestPlugin")
+                .contains("compatibility.feature.configuration-cache=DECLARED_SUPPORTED")
+                .contains("compatibility.feature.isolated-projects=UNDECLARED")
+                .contains("compatibility.feature.parallel-configuration=DECLARED_UNSUPPORTED")
+                .doesNotContain("configuration-cache=UNDECLARED");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits the cross-version integration tests into shards of similar duration, so that forks running a shard each
+ * finish at about the same time.
+ * <p>
+ * The unit of work is a test class with a Gradle version. The durations of earlier runs come from
+ * {@value #DURATIONS_RESOURCE} and are assigned longest first to the shard with the least work so far, which keeps the
+ * slowest shard close to the optimum. Work without a recorded duration is assigned by its hash. The shard is selected
+ * with the {@code integTest.shard} and {@code integTest.shards} system properties, without them every test runs.
+ * <p>
+ * The durations of the run are written to the file in the {@code integTest.durationsOutput} system property, which the
+ * {@code updateIntegTestDurations} task merges into the resource.
+ */
+class IntegTestShards implements BeforeEachCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    static final String DURATIONS_RESOURCE = "/integ-test-durations.properties";
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(IntegTestShards.class);
+    private static final Map<String, LongAdder> DURATIONS = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        String shard = System.getProperty("integTest.shard");
+        String shards = System.getProperty("integTest.shards");
+        if (shard == null || shards == null) {
+            return;
+        }
+        String key = key(context);
+        int assigned = Assignment.get(Integer.parseInt(shards)).shardOf(key) + 1;
+        Assumptions.assumeTrue(assigned == Integer.parseInt(shard), () -> key + " runs in shard " + assigned);
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put("start", System.nanoTime());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Long start = context.getStore(NAMESPACE).remove("start", Long.class);
+        String output = System.getProperty("integTest.durationsOutput");
+        if (start == null || output == null) {
+            return;
+        }
+        DURATIONS.computeIfAbsent(key(context), k -> new LongAdder()).add((System.nanoTime() - start) / 1_000_000);
+        writeDurations(Paths.get(output));
+    }
+
+    private static String key(ExtensionContext context) {
+        CompatibilityTestBase test = (CompatibilityTestBase) context.getRequiredTestInstance();
+        return test.getClass().getSimpleName() + "/" + test.getGradleVersion().getVersion();
+    }
+
+    /**
+     * Rewrites the durations after every test, so they are kept even if the fork is stopped.
+     */
+    private static synchronized void writeDurations(Path output) {
+        StringBuilder content = new StringBuilder();
+        new TreeMap<>(DURATIONS).forEach((key, millis) -> content.append(key).append('=').append(millis).append('\n'));
+        try {
+            Files.createDirectories(output.getParent());
+            Files.writeString(output, content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The shards of the work with a recorded duration.
+     */
+    static final class Assignment {
+        private static final Map<Integer, Assignment> INSTANCES = new ConcurrentHashMap<>();
+
+        private final int shards;
+        private final Map<String, Integer> recorded = new HashMap<>();
+
+        Assignment(int shards, Map<String, Long> durations) {
+            this.shards = shards;
+            List<Map.Entry<String, Long>> longestFirst = new ArrayList<>(durations.entrySet());
+            longestFirst.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry::getKey));
+            long[] load = new long[shards];
+            for (Map.Entry<String, Long> work : longestFirst) {
+                int leastLoaded = 0;
+                for (int shard = 1; shard < shards; shard++) {
+                    if (load[shard] < load[leastLoaded]) {
+                        leastLoaded = shard;
+                    }
+                }
+                recorded.put(work.getKey(), leastLoaded);
+                load[leastLoaded] += work.getValue();
+            }
+        }
+
+        static Assignment get(int shards) {
+            return INSTANCES.computeIfAbsent(shards, count -> new Assignment(count, readDurations()));
+        }
+
+        /**
+         * Returns the zero-based shard of the work.
+         */
+        int shardOf(String key) {
+            Integer shard = recorded.get(key);
+            return shard != null ? shard : Math.floorMod(key.hashCode(), shards);
+        }
+
+        private static Map<String, Long> readDurations() {
+            Properties properties = new Properties();
+            try (InputStream in = IntegTestShards.class.getResourceAsStream(DURATIONS_RESOURCE)) {
+                if (in != null) {
+                    properties.load(in);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            Map<String, Long> result = new HashMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                result.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            }
+            return result;
+        }
+    }
+}
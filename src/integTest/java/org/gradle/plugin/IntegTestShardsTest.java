@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the assignment of the integration tests to shards. It doesn't extend {@link CompatibilityTestBase}, so it runs
+ * in every shard.
+ */
+@DisplayName("IntegTestShards")
+class IntegTestShardsTest {
+
+    @Test
+    @DisplayName("should assign the longest work first to the least loaded shard")
+    void shouldBalanceLongestFirst() {
+        var assignment = new IntegTestShards.Assignment(2, Map.of(
+            "A/9.0.0", 10L,
+            "B/9.0.0", 8L,
+            "C/9.0.0", 6L,
+            "D/9.0.0", 5L,
+            "E/9.0.0", 4L,
+            "F/9.0.0", 3L
+        ));
+
+        // A: 10 | 0, B: 10 | 8, C: 10 | 14, D: 15 | 14, E: 15 | 18, F: 18 | 18
+        assertThat(Stream.of("A", "D", "F").map(test -> assignment.shardOf(test + "/9.0.0"))).containsOnly(0);
+        assertThat(Stream.of("B", "C", "E").map(test -> assignment.shardOf(test + "/9.0.0"))).containsOnly(1);
+    }
+
+    @Test
+    @DisplayName("should break ties by the name of the work and the number of the shard")
+    void shouldBreakTies() {
+        var assignment = new IntegTestShards.Assignment(3, Map.of(
+            "C/8.14.3", 5L,
+            "A/8.14.3", 5L,
+            "B/8.14.3", 5L
+        ));
+
+        assertThat(assignment.shardOf("A/8.14.3")).isZero();
+        assertThat(assignment.shardOf("B/8.14.3")).isEqualTo(1);
+        assertThat(assignment.shardOf("C/8.14.3")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should assign work without a recorded duration by its hash")
+    void shouldAssignUnrecordedWorkByHash() {
+        var assignment = new IntegTestShards.Assignment(4, Map.of());
+
+        assertThat(assignment.shardOf("NewTest/9.4.0")).isEqualTo(Math.floorMod("NewTest/9.4.0".hashCode(), 4));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin;
+
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that applying the plugin only loads the classes that the build needs.
+ */
+@ParameterizedClass
+@MethodSource("modernSyntaxGradleVersions")
+@Execution(ExecutionMode.CONCURRENT)
+class LoadedClassesTest extends CompatibilityTestBase {
+
+    LoadedClassesTest(String version) {
+        super(version);
+    }
+
+    @Test
+    @DisplayName("Kotlin DSL build doesn't load registry, Groovy syntax, descriptor generation or verification classes")
+    void kotlinDslBuildLoadsMinimalClasses() throws IOException {
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                        compatibility {
+                            features {
+                                configurationCache = true
+                            }
+                        }
+                    }
+                }
+            }
+
+            val pluginClass = Class.forName("org.gradle.plugin.compatibility.internal.CompatibilityPlugin")
+            val findLoadedClass = ClassLoader::class.java.getDeclaredMethod("findLoadedClass", String::class.java)
+            findLoadedClass.isAccessible = true
+            val classesDir = File(pluginClass.protectionDomain.codeSource.location.toURI())
+            classesDir.walk()
+                .filter { it.name.endsWith(".class") }
+                .map { it.relativeTo(classesDir).invariantSeparatorsPath.removeSuffix(".class").replace('/', '.') }
+                .filter { findLoadedClass.invoke(pluginClass.classLoader, it) != null }
+                .sorted()
+                .forEach { println("Loaded class: " + it) }
+            """);
+
+        // Plugin class loaders are reused across builds with the same classpath, so use a copy only this build has,
+        // and classes loaded by other tests don't show up
+        var result = createRunner("help").withPluginClasspath(copyPluginClasspath()).build();
+
+        assertThat(result.getOutput().lines().filter(line -> line.startsWith("Loaded class: ")))
+            .containsExactly(
+                "Loaded class: org.gradle.plugin.compatibility.CompatibilityExtension",
+                "Loaded class: org.gradle.plugin.compatibility.CompatibleFeatures",
+                "Loaded class: org.gradle.plugin.compatibility.PluginCompatibilityExtension",
+                "Loaded class: org.gradle.plugin.compatibility.internal.CompatibilityFeature",
+                "Loaded class: org.gradle.plugin.compatibility.internal.CompatibilityPlugin",
+                "Loaded class: org.gradle.plugin.compatibility.internal.CompatibilityStrategy",
+                "Loaded class: org.gradle.plugin.compatibility.internal.ExtensionAwareStrategy",
+                "Loaded class: org.gradle.plugin.compatibility.internal.PluginDevelopmentConfiguration"
+            );
+    }
+
+    private List<File> copyPluginClasspath() throws IOException {
+        List<File> result = new ArrayList<>();
+        Path target = Files.createDirectories(testProjectDir.resolve("plugin-classpath"));
+        for (File entry : GradleRunner.create().withPluginClasspath().getPluginClasspath()) {
+            Path source = entry.toPath();
+            Path copy = target.resolve(result.size() + "-" + source.getFileName());
+            if (Files.isDirectory(source)) {
+                try (Stream<Path> files = Files.walk(source)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.copy(file, copy.resolve(source.relativize(file).toString()));
+                    }
+                }
+            } else if (Files.exists(source)) {
+                Files.copy(source, copy);
+            }
+            result.add(copy.toFile());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmarks the configuration of a large build of plugin projects with Isolated Projects, which configures the
+ * projects in parallel, to check that the plugin doesn't serialize their configuration.
+ * <p>
+ * The same build is configured with 1, 4 and 16 workers, with and without the plugin, and the speedups are reported.
+ * The absolute timings depend on the machine, so only the speedup with the most workers is asserted, relative to the
+ * speedup of the same build without the plugin on the same machine. Isolated Projects also fails the build on
+ * cross-project access and on {@code Task.getProject()} at execution time. Run with {@code ./gradlew integBenchmark}.
+ */
+@Tag("benchmark")
+@ParameterizedClass
+@MethodSource("modernSyntaxGradleVersions")
+@Execution(ExecutionMode.SAME_THREAD) // Concurrent builds would skew the timings
+class ParallelConfigurationScalingTest extends CompatibilityTestBase {
+    private static final int PROJECTS = 200;
+    private static final int[] WORKERS = {1, 4, 16};
+    private static final int RUNS = 3;
+    // The share of the speedup without the plugin that the plugin must keep, which leaves room for timing noise
+    private static final double SPEEDUP_TOLERANCE = 0.75;
+
+    ParallelConfigurationScalingTest(String version) {
+        super(version);
+    }
+
+    @Test
+    @DisplayName("Configuration of 200 plugin projects scales with the workers under Isolated Projects")
+    void configurationScalesWithWorkers() throws IOException {
+        generateBuild();
+        // Starts the daemon and compiles the build scripts
+        runGradle(configurationArguments(WORKERS[WORKERS.length - 1], false));
+        runGradle(configurationArguments(WORKERS[WORKERS.length - 1], true));
+
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+            "Gradle %s, %d projects, best of %d runs%n", getGradleVersion().getVersion(), PROJECTS, RUNS));
+        long pluginBaseline = 0;
+        long controlBaseline = 0;
+        double pluginSpeedup = 0;
+        double controlSpeedup = 0;
+        for (int workers : WORKERS) {
+            long plugin = measureConfiguration(workers, false);
+            long control = measureConfiguration(workers, true);
+            if (workers == WORKERS[0]) {
+                pluginBaseline = plugin;
+                controlBaseline = control;
+            }
+            pluginSpeedup = (double) pluginBaseline / plugin;
+            controlSpeedup = (double) controlBaseline / control;
+            report.append(String.format(Locale.ROOT,
+                "  %2d workers: %6d ms, speedup %.2fx (without the plugin: %6d ms, speedup %.2fx)%n",
+                workers, plugin, pluginSpeedup, control, controlSpeedup));
+        }
+        writeReport(report.toString());
+
+        assertThat(pluginSpeedup)
+            .as("Speedup with %d workers, without the plugin %.2fx%n%s",
+                WORKERS[WORKERS.length - 1], controlSpeedup, report)
+            .isGreaterThanOrEqualTo(controlSpeedup * SPEEDUP_TOLERANCE);
+
+        // Runs the task actions as well, which fails on project access at execution time
+        runGradle("pluginDescriptors", "--quiet", "--max-workers=" + WORKERS[WORKERS.length - 1]);
+
+        assertPluginDescriptor("plugin-000", "com.example.plugin-000")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(SUPPORTED);
+    }
+
+    private void generateBuild() throws IOException {
+        StringBuilder settings = new StringBuilder("rootProject.name = 'scaling'\n");
+        for (int i = 0; i < PROJECTS; i++) {
+            String project = String.format(Locale.ROOT, "plugin-%03d", i);
+            settings.append("include '").append(project).append("'\n");
+            // All scripts have the same content, so they are only compiled once
+            Files.writeString(file(project + "/build.gradle"), """
+                plugins {
+                    id('java-gradle-plugin')
+                    id('org.gradle.plugin-compatibility') apply false
+                }
+
+                def withPlugin = !providers.gradleProperty('withoutCompatibility').present
+                if (withPlugin) {
+                    apply plugin: 'org.gradle.plugin-compatibility'
+                }
+
+                gradlePlugin {
+                    plugins {
+                        create('main') {
+                            id = "com.example.${project.name}"
+                            implementationClass = 'com.example.ScalingPlugin'
+                            if (withPlugin) {
+                                compatibility {
+                                    features {
+                                        configurationCache = true
+                                        isolatedProjects = true
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+                """);
+        }
+        Files.writeString(file("settings.gradle"), settings);
+        // Isolated Projects configures the projects in parallel, and implies the Configuration Cache
+        Files.writeString(file("gradle.properties"), "org.gradle.unsafe.isolated-projects=true\n");
+    }
+
+    private static String[] configurationArguments(int workers, boolean withoutPlugin) {
+        List<String> arguments = new ArrayList<>(List.of(
+            "pluginDescriptors", "--dry-run", "--quiet", "--max-workers=" + workers
+        ));
+        if (withoutPlugin) {
+            arguments.add("-PwithoutCompatibility");
+        }
+        return arguments.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the best wall-clock time of configuring the build, in milliseconds. The Configuration Cache is discarded
+     * before every run, so the projects are configured again.
+     */
+    private long measureConfiguration(int workers, boolean withoutPlugin) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            deleteRecursively(testProjectDir.resolve(".gradle/configuration-cache"));
+            long start = System.nanoTime();
+            runGradle(configurationArguments(workers, withoutPlugin));
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    private void writeReport(String report) throws IOException {
+        String reportDir = System.getProperty("benchmarkReportDir");
+        if (reportDir != null) {
+            Path reportFile = Paths.get(reportDir, "parallel-configuration-" + getGradleVersion().getVersion() + ".txt");
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, report);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
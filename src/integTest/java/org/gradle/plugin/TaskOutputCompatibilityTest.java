@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for compatibility values derived from task outputs, which are resolved when the plugin descriptors are
+ * generated.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class TaskOutputCompatibilityTest extends CompatibilityTestBase {
+
+    TaskOutputCompatibilityTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @BeforeEach
+    @Override
+    void setUp() throws IOException {
+        super.setUp();
+
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            apply(plugin = "maven-publish")
+
+            group = "com.example"
+            version = "1.0"
+
+            abstract class VerifyCompatibility : DefaultTask() {
+                @get:Input
+                abstract val outcome: Property<Boolean>
+
+                @get:OutputFile
+                abstract val result: RegularFileProperty
+
+                @TaskAction
+                fun verify() {
+                    result.get().asFile.writeText(outcome.get().toString())
+                }
+            }
+
+            val verifyCompatibility = tasks.register<VerifyCompatibility>("verifyCompatibility") {
+                outcome.set(providers.gradleProperty("outcome").map { it.toBoolean() }.orElse(true))
+                result.set(layout.buildDirectory.file("verify/result.txt"))
+            }
+
+            pluginCompatibility {
+                defaults {
+                    isolatedProjects.set(true)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("testPlugin") {
+                        id = "org.gradle.test.plugin"
+                        implementationClass = "org.gradle.plugin.TestPlugin"
+                        compatibility {
+                            features {
+                                configurationCache.set(
+                                    verifyCompatibility.flatMap { it.result }.map { it.asFile.readText().toBoolean() }
+                                )
+                            }
+                        }
+                    }
+                }
+            }
+
+            configure<PublishingExtension> {
+                repositories {
+                    maven {
+                        name = "test"
+                        url = uri(layout.buildDirectory.dir("repo"))
+                    }
+                }
+            }
+            """);
+
+        createTestPluginSource();
+    }
+
+    @Test
+    @DisplayName("Task output is resolved after the task runs, in the same build")
+    void taskOutputIsResolvedAtExecution() {
+        var firstRun = runGradle("jar");
+
+        assertThat(firstRun.task(":verifyCompatibility")).isNotNull();
+        assertThat(firstRun.getOutput().indexOf("Task :verifyCompatibility"))
+            .isLessThan(firstRun.getOutput().indexOf("Task :pluginDescriptors"));
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(SUPPORTED)
+            .hasIsolatedProjects(SUPPORTED);
+
+        var secondRun = runGradle("jar");
+
+        assertThat(secondRun.task(":pluginDescriptors"))
+            .isNotNull()
+            .satisfies(task -> assertThat(task.getOutcome())
+                .as("Task should be UP-TO-DATE when the task output hasn't changed")
+                .isEqualTo(TaskOutcome.UP_TO_DATE));
+
+        var thirdRun = runGradle("jar", "-Poutcome=false");
+
+        assertThat(thirdRun.task(":pluginDescriptors"))
+            .isNotNull()
+            .satisfies(task -> assertThat(task.getOutcome())
+                .as("Task should be re-executed when the task output changes")
+                .isEqualTo(TaskOutcome.SUCCESS));
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(UNSUPPORTED)
+            .hasIsolatedProjects(SUPPORTED);
+    }
+
+    @Test
+    @DisplayName("Publishing works in the same build with the variant attributes disabled")
+    void publishingWorksInTheSameBuild() throws IOException {
+        Files.writeString(
+            file("build.gradle.kts"),
+            "\npluginCompatibility { variantAttributes.set(false) }\n",
+            StandardOpenOption.APPEND
+        );
+
+        var result = runGradle("publishPluginMavenPublicationToTestRepository");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+        assertPluginDescriptor("org.gradle.test.plugin")
+            .hasConfigurationCache(SUPPORTED);
+
+        Path module = testProjectDir.resolve("build/repo/com/example/test-plugin/1.0/test-plugin-1.0.module");
+        assertThat(module).exists();
+        assertThat(Files.readString(module))
+            .contains("\"org.gradle.category\": \"library\"")
+            .doesNotContain("org.gradle.plugin.compatibility.feature");
+    }
+
+    @Test
+    @DisplayName("Publishing with the variant attributes enabled fails with a hint to disable them")
+    void publishingWithVariantAttributesFails() {
+        var result = runGradleAndFail("publishPluginMavenPublicationToTestRepository");
+
+        assertThat(result.getOutput())
+            .contains("The plugin compatibility of root project 'test-plugin' is derived from the outputs of")
+            .contains("[:verifyCompatibility]")
+            .contains("pluginCompatibility { variantAttributes = false }");
+        assertThat(result.task(":verifyCompatibility")).isNull();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for publishing the compatibility in the Gradle Module Metadata.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+@ParameterizedClass
+@MethodSource("allGradleVersions")
+class VariantAttributesTest extends CompatibilityTestBase {
+
+    VariantAttributesTest(String gradleVersion) {
+        super(gradleVersion);
+    }
+
+    @Test
+    @DisplayName("Module metadata contains the compatibility shared by all plugins")
+    void moduleMetadataContainsCompatibility() throws IOException {
+        withKotlinBuildScript("""
+            import org.gradle.plugin.compatibility.compatibility
+
+            apply(plugin = "maven-publish")
+
+            group = "com.example"
+            version = "1.0"
+
+            pluginCompatibility {
+                defaults {
+                    configurationCache.set(true)
+                }
+            }
+
+            gradlePlugin {
+                plugins {
+                    create("plugin1") {
+                        id = "com.example.plugin1"
+                        implementationClass = "com.example.Plugin1"
+                    }
+                    create("plugin2") {
+                        id = "com.example.plugin2"
+                        implementationClass = "com.example.Plugin2"
+                        compatibility {
+                            features {
+                                isolatedProjects.set(false)
+                            }
+                        }
+                    }
+                }
+            }
+
+            configure<PublishingExtension> {
+                repositories {
+                    maven {
+                        name = "test"
+                        url = uri(layout.buildDirectory.dir("repo"))
+                    }
+                }
+            }
+            """);
+        createTestPluginSource("com.example", "Plugin1");
+        createTestPluginSource("com.example", "Plugin2");
+
+        var result = runGradle("publishPluginMavenPublicationToTestRepository");
+
+        assertThat(result.getOutput()).contains("BUILD SUCCESSFUL");
+
+        Path module = testProjectDir.resolve("build/repo/com/example/test-plugin/1.0/test-plugin-1.0.module");
+        assertThat(module).exists();
+        String metadata = Files.readString(module);
+        assertThat(metadata)
+            .contains("\"org.gradle.plugin.compatibility.feature.configuration-cache\": \"DECLARED_SUPPORTED\"")
+            .contains("\"org.gradle.plugin.compatibility.feature.isolated-projects\": \"DECLARED_UNSUPPORTED\"")
+            .contains("\"org.gradle.plugin.compatibility.feature.parallel-configuration\": \"UNDECLARED\"");
+    }
+}
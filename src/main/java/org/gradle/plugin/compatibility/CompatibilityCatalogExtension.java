@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility;
+
+import org.gradle.api.file.RegularFileProperty;
+
+/**
+ * Configures the build-wide compatibility catalog. Available as the {@code pluginCompatibilityCatalog} settings
+ * extension when the {@code org.gradle.plugin-compatibility-catalog} settings plugin is applied.
+ * <p>
+ * The catalog is a properties file that maps plugin IDs to feature support. Each key is a plugin ID followed by the
+ * feature name, and the value is {@code true} or {@code false}:
+ * <pre>
+ * <i># gradle/plugin-compatibility.properties</i>
+ * com.example.my.plugin.configurationCache=true
+ * com.example.my.plugin.isolatedProjects=false
+ * </pre>
+ * <p>
+ * The catalog is read once per build and shared by all projects. A feature configured in the {@code compatibility}
+ * block of a plugin declaration takes precedence over the catalog, and the catalog takes precedence over the
+ * {@linkplain PluginCompatibilityExtension#getDefaults() project defaults}.
+ *
+ * @since 1.1.0
+ */
+public abstract class CompatibilityCatalogExtension {
+    /**
+     * The location of the catalog, relative to the settings directory, that is used if nothing else is configured.
+     *
+     * @since 1.1.0
+     */
+    public static final String DEFAULT_CATALOG_LOCATION = "gradle/plugin-compatibility.properties";
+
+    /**
+     * Returns the catalog file. Defaults to {@value #DEFAULT_CATALOG_LOCATION}. A missing file is treated as an empty
+     * catalog.
+     *
+     * @return the catalog file property
+     * @since 1.1.0
+     */
+    public abstract RegularFileProperty getCatalogFile();
+}
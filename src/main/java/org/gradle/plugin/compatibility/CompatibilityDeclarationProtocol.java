@@ -57,4 +57,44 @@ public interface CompatibilityDeclarationProtocol {
      * @since 1.0.0
      */
     String FEATURE_CONFIGURATION_CACHE = "configuration-cache";
+
+    /**
+     * The Isolated Projects feature name.
+     *
+     * @since 1.1.0
+     */
+    String FEATURE_ISOLATED_PROJECTS = "isolated-projects";
+
+    /**
+     * The parallel configuration feature name.
+     *
+     * @since 1.1.0
+     */
+    String FEATURE_PARALLEL_CONFIGURATION = "parallel-configuration";
+
+    /**
+     * The jar resource that lists the compatibility of all plugins in the jar, so consumers can read a single entry
+     * instead of every plugin descriptor. It is a properties file with a line per plugin ID. The value is a
+     * comma-separated list of {@code <feature>:<support level>} pairs, for example
+     * {@code com.example.plugin=configuration-cache:DECLARED_SUPPORTED,isolated-projects:UNDECLARED}.
+     * <p>
+     * The plugin descriptors remain the source of truth. Jars built with older versions of the plugin don't contain
+     * the index.
+     *
+     * @since 1.1.0
+     */
+    String INDEX_RESOURCE = "META-INF/gradle-plugin-compatibility/index.properties";
+
+    /**
+     * The prefix of the variant attributes that publish the compatibility in the Gradle Module Metadata. Each feature
+     * has its own attribute, named with this prefix followed by the feature name, as in
+     * {@code org.gradle.plugin.compatibility.feature.configuration-cache}.
+     * <p>
+     * The value is the support level shared by all plugins in the jar: {@link #DECLARED_SUPPORTED} if every plugin
+     * declares support, {@link #DECLARED_UNSUPPORTED} if any plugin declares no support, and {@link #UNDECLARED}
+     * otherwise.
+     *
+     * @since 1.1.0
+     */
+    String VARIANT_ATTRIBUTE_PREFIX = "org.gradle.plugin.compatibility.feature.";
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility;
+
+import org.gradle.plugin.compatibility.internal.PluginJarDescriptors;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the compatibility declared by plugins, as defined by {@link CompatibilityDeclarationProtocol}.
+ * <p>
+ * The declarations of a jar are parsed once and cached until the jar's modification time or size changes. The least
+ * recently used jars are evicted when the cache is full. A reader is thread-safe and is meant to be shared, for
+ * example by checks that run on every build.
+ * <pre>
+ * CompatibilityDescriptorReader reader = new CompatibilityDescriptorReader(256);
+ * Map&lt;String, String&gt; features = reader.read("com.example.plugin", plugin.getClass().getClassLoader());
+ * if (features != null &amp;&amp; CompatibilityDeclarationProtocol.DECLARED_SUPPORTED.equals(
+ *         features.get(CompatibilityDeclarationProtocol.FEATURE_CONFIGURATION_CACHE))) {
+ *     // ...
+ * }
+ * </pre>
+ * The returned maps are keyed by the protocol feature name, such as
+ * {@value CompatibilityDeclarationProtocol#FEATURE_CONFIGURATION_CACHE}. The values are
+ * {@value CompatibilityDeclarationProtocol#DECLARED_SUPPORTED},
+ * {@value CompatibilityDeclarationProtocol#DECLARED_UNSUPPORTED} or {@value CompatibilityDeclarationProtocol#UNDECLARED}. All features known to this version of the plugin are
+ * present, as are unknown features found in the descriptor.
+ *
+ * @since 1.1.0
+ */
+public final class CompatibilityDescriptorReader {
+    private final Map<Path, CachedDescriptors> cache;
+
+    /**
+     * Creates a reader that caches the declarations of up to the given number of jars.
+     *
+     * @param maximumCachedJars the cache capacity
+     * @since 1.1.0
+     */
+    public CompatibilityDescriptorReader(int maximumCachedJars) {
+        if (maximumCachedJars < 1) {
+            throw new IllegalArgumentException("The cache capacity must be positive, got " + maximumCachedJars);
+        }
+        this.cache = new LinkedHashMap<Path, CachedDescriptors>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedDescriptors> eldest) {
+                return size() > maximumCachedJars;
+            }
+        };
+    }
+
+    /**
+     * Returns the compatibility declared by the plugin in the jar.
+     *
+     * @param pluginId the plugin ID
+     * @param jar the plugin jar
+     * @return the support level per feature, or {@code null} if the jar doesn't contain the plugin
+     * @throws UncheckedIOException if the jar can't be read
+     * @since 1.1.0
+     */
+    public @Nullable Map<String, String> read(String pluginId, Path jar) {
+        return descriptors(jar, true).get(pluginId);
+    }
+
+    /**
+     * Returns the compatibility declared by the plugin visible to the class loader.
+     *
+     * @param pluginId the plugin ID
+     * @param classLoader the class loader the plugin is loaded with
+     * @return the support level per feature, or {@code null} if the class loader doesn't see the plugin
+     * @throws UncheckedIOException if the descriptor can't be read
+     * @since 1.1.0
+     */
+    public @Nullable Map<String, String> read(String pluginId, ClassLoader classLoader) {
+        URL descriptor = classLoader.getResource(PluginJarDescriptors.DESCRIPTOR_DIRECTORY + pluginId + ".properties");
+        if (descriptor == null) {
+            return null;
+        }
+        Path location = localPath(descriptor);
+        if (location == null) {
+            // Neither a jar nor a directory on the local file system, so there is nothing to key the cache by
+            try (InputStream in = descriptor.openStream()) {
+                return toResult(PluginJarDescriptors.features(in));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read the plugin descriptor " + descriptor, ex);
+            }
+        }
+        return descriptors(location, "jar".equals(descriptor.getProtocol())).get(pluginId);
+    }
+
+    /**
+     * Removes all cached declarations.
+     *
+     * @since 1.1.0
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the cached declarations of the jar, or of the single descriptor file if {@code isJar} is false. The
+     * declarations are read again if the file changed since they were cached.
+     */
+    private Map<String, Map<String, String>> descriptors(Path file, boolean isJar) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read " + file, ex);
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        synchronized (cache) {
+            CachedDescriptors cached = cache.get(file);
+            if (cached != null && cached.lastModified == lastModified && cached.size == size) {
+                return cached.plugins;
+            }
+        }
+        // Read outside the lock, so a slow jar doesn't block the readers of other jars
+        Map<String, Map<String, String>> plugins = isJar ? readJar(file) : readDescriptorFile(file);
+        synchronized (cache) {
+            cache.put(file, new CachedDescriptors(lastModified, size, plugins));
+        }
+        return plugins;
+    }
+
+    private static Map<String, Map<String, String>> readJar(Path jar) {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Map<String, Map<String, String>> result = new TreeMap<>();
+            PluginJarDescriptors.read(zip).forEach((pluginId, features) -> result.put(pluginId, toResult(features)));
+            return Collections.unmodifiableMap(result);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read the plugin descriptors of " + jar, ex);
+        }
+    }
+
+    private static Map<String, Map<String, String>> readDescriptorFile(Path descriptor) {
+        String fileName = String.valueOf(descriptor.getFileName());
+        String pluginId = fileName.substring(0, fileName.length() - ".properties".length());
+        try (InputStream in = Files.newInputStream(descriptor)) {
+            return Collections.singletonMap(pluginId, toResult(PluginJarDescriptors.features(in)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read the plugin descriptor " + descriptor, ex);
+        }
+    }
+
+    private static Map<String, String> toResult(SortedMap<String, String> features) {
+        return Collections.unmodifiableMap(PluginJarDescriptors.withKnownFeatures(features));
+    }
+
+    /**
+     * Returns the jar containing the resource, or the resource file itself if it's in a directory. Returns
+     * {@code null} for other locations.
+     */
+    private static @Nullable Path localPath(URL resource) {
+        try {
+            if ("file".equals(resource.getProtocol())) {
+                return Paths.get(resource.toURI());
+            }
+            if ("jar".equals(resource.getProtocol())) {
+                String path = resource.getPath();
+                int separator = path.indexOf("!/");
+                if (separator > 0 && path.startsWith("file:")) {
+                    return Paths.get(new URI(path.substring(0, separator)));
+                }
+            }
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            // Not a well-formed local location, read without caching
+        }
+        return null;
+    }
+
+    private static final class CachedDescriptors {
+        private final long lastModified;
+        private final long size;
+        private final Map<String, Map<String, String>> plugins;
+
+        CachedDescriptors(long lastModified, long size, Map<String, Map<String, String>> plugins) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.plugins = plugins;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility;
+
+import org.gradle.plugin.compatibility.internal.PluginJarDescriptors;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares the compatibility declared by the plugins of two versions of a plugin jar, or of two directory trees of
+ * jars such as repository snapshots, and reports regressions.
+ * <p>
+ * A regression is a feature that a plugin declares as {@value CompatibilityDeclarationProtocol#DECLARED_SUPPORTED}
+ * before, but not after. Plugins are matched by ID, so the jar names don't have to match. Plugins that exist on only
+ * one side are ignored. If a directory contains several versions of a plugin, like a Maven repository snapshot, only
+ * the newest version is compared. The version of a jar is the name of its directory, if the jar is named after that
+ * directory and its parent, like {@code com/example/plugin/1.2/plugin-1.2.jar}. A plugin that is in several jars
+ * without such a version is rejected, as it isn't clear which jar to compare.
+ * <p>
+ * Only the index or the plugin descriptors of each jar are read, and the sorted plugin lists are compared in a single
+ * pass. This class doesn't need the Gradle API and can be run from the command line:
+ * <pre>
+ * java -cp compatibility-plugin.jar org.gradle.plugin.compatibility.CompatibilityDiff &lt;before&gt; &lt;after&gt;
+ * </pre>
+ * The command prints one regression per line and exits with status 1 if there are any.
+ *
+ * @since 1.1.0
+ */
+public final class CompatibilityDiff {
+    /**
+     * A feature that was declared as supported by a plugin before, but isn't after.
+     *
+     * @since 1.1.0
+     */
+    public static final class Regression {
+        private final String pluginId;
+        private final String feature;
+        private final String before;
+        private final String after;
+
+        Regression(String pluginId, String feature, String before, String after) {
+            this.pluginId = pluginId;
+            this.feature = feature;
+            this.before = before;
+            this.after = after;
+        }
+
+        /**
+         * Returns the plugin ID.
+         *
+         * @return the plugin ID
+         * @since 1.1.0
+         */
+        public String getPluginId() {
+            return pluginId;
+        }
+
+        /**
+         * Returns the protocol name of the feature, like
+         * {@value CompatibilityDeclarationProtocol#FEATURE_CONFIGURATION_CACHE}.
+         *
+         * @return the feature name
+         * @since 1.1.0
+         */
+        public String getFeature() {
+            return feature;
+        }
+
+        /**
+         * Returns the value declared before.
+         *
+         * @return the declared value
+         * @since 1.1.0
+         */
+        public String getBefore() {
+            return before;
+        }
+
+        /**
+         * Returns the value declared after, {@value CompatibilityDeclarationProtocol#UNDECLARED} if the feature is
+         * no longer declared.
+         *
+         * @return the declared value
+         * @since 1.1.0
+         */
+        public String getAfter() {
+            return after;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Regression that = (Regression) o;
+            return pluginId.equals(that.pluginId) && feature.equals(that.feature)
+                && before.equals(that.before) && after.equals(that.after);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pluginId, feature, before, after);
+        }
+
+        @Override
+        public String toString() {
+            return pluginId + " " + feature + ": " + before + " -> " + after;
+        }
+    }
+
+    private CompatibilityDiff() {}
+
+    /**
+     * Compares the plugins of two jars or directory trees of jars.
+     *
+     * @param before the jar or directory with the earlier version
+     * @param after the jar or directory with the later version
+     * @return the regressions, sorted by plugin ID and feature
+     * @throws IOException if a jar can't be read
+     * @throws IllegalArgumentException if several jars of a directory without a version contain the same plugin
+     * @since 1.1.0
+     */
+    public static List<Regression> compare(Path before, Path after) throws IOException {
+        return compare(read(before), read(after));
+    }
+
+    /**
+     * Compares the declared compatibility of two sets of plugins, keyed by plugin ID and then by protocol feature
+     * name. Missing features are treated as {@value CompatibilityDeclarationProtocol#UNDECLARED}.
+     *
+     * @param before the earlier declarations
+     * @param after the later declarations
+     * @return the regressions, sorted by plugin ID and feature
+     * @since 1.1.0
+     */
+    public static List<Regression> compare(
+        SortedMap<String, ? extends Map<String, String>> before,
+        SortedMap<String, ? extends Map<String, String>> after
+    ) {
+        List<Regression> regressions = new ArrayList<>();
+        Iterator<? extends Map.Entry<String, ? extends Map<String, String>>> left = before.entrySet().iterator();
+        Iterator<? extends Map.Entry<String, ? extends Map<String, String>>> right = after.entrySet().iterator();
+        Map.Entry<String, ? extends Map<String, String>> l = next(left);
+        Map.Entry<String, ? extends Map<String, String>> r = next(right);
+        while (l != null && r != null) {
+            int order = l.getKey().compareTo(r.getKey());
+            if (order < 0) {
+                l = next(left);
+            } else if (order > 0) {
+                r = next(right);
+            } else {
+                compareFeatures(l.getKey(), l.getValue(), r.getValue(), regressions);
+                l = next(left);
+                r = next(right);
+            }
+        }
+        return regressions;
+    }
+
+    private static <T> @Nullable T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static void compareFeatures(
+        String pluginId,
+        Map<String, String> before,
+        Map<String, String> after,
+        List<Regression> regressions
+    ) {
+        for (String feature : new TreeSet<>(before.keySet())) {
+            String previous = before.get(feature);
+            if (!CompatibilityDeclarationProtocol.DECLARED_SUPPORTED.equals(previous)) {
+                continue;
+            }
+            String current = after.get(feature);
+            if (current == null) {
+                current = CompatibilityDeclarationProtocol.UNDECLARED;
+            }
+            if (!current.equals(previous)) {
+                regressions.add(new Regression(pluginId, feature, previous, current));
+            }
+        }
+    }
+
+    /**
+     * Reads the declared compatibility of all plugins in a jar or in the jars of a directory tree, keyed by plugin ID
+     * and then by protocol feature name. Directories are read in parallel, and only the newest version of each plugin
+     * is kept.
+     *
+     * @param jarOrDirectory the jar or directory
+     * @return the declared compatibility, sorted by plugin ID
+     * @throws IOException if a jar can't be read
+     * @throws IllegalArgumentException if several jars of the directory without a version contain the same plugin
+     * @since 1.1.0
+     */
+    public static SortedMap<String, SortedMap<String, String>> read(Path jarOrDirectory) throws IOException {
+        if (!Files.isDirectory(jarOrDirectory)) {
+            return readJar(jarOrDirectory);
+        }
+        List<Path> jars;
+        try (Stream<Path> files = Files.walk(jarOrDirectory)) {
+            jars = files.filter(PluginJarDescriptors::isJar).sorted().collect(Collectors.toList());
+        }
+        List<SortedMap<String, SortedMap<String, String>>> results;
+        try {
+            results = jars.parallelStream().map(jar -> {
+                try {
+                    return readJar(jar);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        SortedMap<String, SortedMap<String, String>> plugins = new TreeMap<>();
+        Map<String, Path> pluginJars = new HashMap<>();
+        for (int i = 0; i < jars.size(); i++) {
+            for (Map.Entry<String, SortedMap<String, String>> plugin : results.get(i).entrySet()) {
+                Path jar = jars.get(i);
+                Path previous = pluginJars.putIfAbsent(plugin.getKey(), jar);
+                if (previous != null) {
+                    String previousVersion = version(previous);
+                    String version = version(jar);
+                    if (previousVersion == null || version == null) {
+                        throw new IllegalArgumentException("Plugin " + plugin.getKey() + " is in both "
+                            + jarOrDirectory.relativize(previous) + " and " + jarOrDirectory.relativize(jar)
+                            + " of " + jarOrDirectory + ", which don't have a version in their path. "
+                            + "Compare the jars directly, or keep one of them.");
+                    }
+                    if (compareVersions(version, previousVersion) <= 0) {
+                        continue;
+                    }
+                    pluginJars.put(plugin.getKey(), jar);
+                }
+                plugins.put(plugin.getKey(), plugin.getValue());
+            }
+        }
+        return plugins;
+    }
+
+    /**
+     * Returns the version of a jar in the Maven repository layout, {@code <artifact>/<version>/<artifact>-<version>.jar},
+     * or {@code null} if the jar isn't laid out like this.
+     */
+    private static @Nullable String version(Path jar) {
+        Path versionDirectory = jar.getParent();
+        Path artifactDirectory = versionDirectory == null ? null : versionDirectory.getParent();
+        if (artifactDirectory == null || artifactDirectory.getFileName() == null) {
+            return null;
+        }
+        String version = versionDirectory.getFileName().toString();
+        String prefix = artifactDirectory.getFileName() + "-" + version;
+        String fileName = jar.getFileName().toString();
+        return fileName.startsWith(prefix + ".") || fileName.startsWith(prefix + "-") ? version : null;
+    }
+
+    /**
+     * Compares versions by their dot- or dash-separated parts, numbers numerically. A version with more numeric parts
+     * is newer, and one with a qualifier like {@code -rc-1} or {@code -SNAPSHOT} is older than the release.
+     */
+    static int compareVersions(String left, String right) {
+        String[] l = left.split("[.-]");
+        String[] r = right.split("[.-]");
+        for (int i = 0; i < Math.max(l.length, r.length); i++) {
+            if (i >= l.length) {
+                return isNumber(r[i]) ? -1 : 1;
+            }
+            if (i >= r.length) {
+                return isNumber(l[i]) ? 1 : -1;
+            }
+            boolean lNumber = isNumber(l[i]);
+            boolean rNumber = isNumber(r[i]);
+            int order;
+            if (lNumber && rNumber) {
+                order = new BigInteger(l[i]).compareTo(new BigInteger(r[i]));
+            } else if (lNumber || rNumber) {
+                order = lNumber ? 1 : -1;
+            } else {
+                order = l[i].compareToIgnoreCase(r[i]);
+            }
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isNumber(String part) {
+        if (part.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < part.length(); i++) {
+            if (!Character.isDigit(part.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static SortedMap<String, SortedMap<String, String>> readJar(Path jar) throws IOException {
+        try {
+            return PluginJarDescriptors.read(jar);
+        } catch (IOException ex) {
+            throw new IOException("Failed to read the plugin descriptors of " + jar, ex);
+        }
+    }
+
+    /**
+     * Runs the comparison from the command line. The regressions are written to the standard output, and the process
+     * exits with status 1 if there are any.
+     *
+     * @param args the jars or directories to compare, the earlier one first
+     * @throws IOException if a jar can't be read
+     * @since 1.1.0
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompatibilityDiff <before> <after>");
+            System.exit(2);
+            return;
+        }
+        List<Regression> regressions;
+        try {
+            regressions = compare(Paths.get(args[0]), Paths.get(args[1]));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(2);
+            return;
+        }
+        for (Regression regression : regressions) {
+            System.out.println(regression);
+        }
+        if (!regressions.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
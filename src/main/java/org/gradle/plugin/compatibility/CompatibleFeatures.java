@@ -22,6 +22,11 @@ import org.gradle.api.tasks.Optional;
 
 /**
  * Defines the plugin's compatibility with various Gradle features.
+ * <p>
+ * Values derived from task outputs are resolved lazily: the tasks producing them run before the plugin descriptors are
+ * generated, in the same build, and the descriptors are up-to-date as long as the values don't change. Such values are
+ * only known at execution time, so they require disabling the
+ * {@linkplain PluginCompatibilityExtension#getVariantAttributes() variant attributes} of the Gradle Module Metadata.
  *
  * @since 1.0.0
  */
@@ -29,8 +34,9 @@ public abstract class CompatibleFeatures {
     /**
      * Defines the compatibility with the Configuration Cache.
      * <p>
-     * Due to internal limitations, the value must be computable at configuration time. In particular, it cannot be
-     * derived from a task output.
+     * The value may be derived from a task output, like the result of a task that verifies the compatibility. It is
+     * then resolved when the plugin descriptors are generated, after that task ran. See {@link CompatibleFeatures} for
+     * the limitations.
      * <p>
      * When this property has no value, the compatibility is considered "undefined".
      * In the future, the Gradle Plugin Portal may stop accepting plugins with undefined compatibility status.
@@ -41,4 +47,34 @@ public abstract class CompatibleFeatures {
     @Input
     @Optional
     public abstract Property<Boolean> getConfigurationCache();
+
+    /**
+     * Defines the compatibility with Isolated Projects.
+     * <p>
+     * A plugin compatible with Isolated Projects doesn't access the mutable state of other projects during
+     * configuration. Isolated Projects builds on the Configuration Cache, so declaring support for it without declaring
+     * support for the Configuration Cache is unlikely to be useful.
+     * <p>
+     * The value may be derived from a task output. When this property has no value, the compatibility is considered
+     * "undefined".
+     *
+     * @return the Property object
+     * @since 1.1.0
+     */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getIsolatedProjects();
+
+    /**
+     * Defines the compatibility with parallel configuration, where multiple projects are configured concurrently.
+     * <p>
+     * The value may be derived from a task output. When this property has no value, the compatibility is considered
+     * "undefined".
+     *
+     * @return the Property object
+     * @since 1.1.0
+     */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getParallelConfiguration();
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility;
+
+import org.gradle.api.Action;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.plugin.compatibility.internal.CompatibilityRules;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Project-wide configuration of the plugin, available as the {@code pluginCompatibility} project extension.
+ * <p>
+ * The {@linkplain #getDefaults() defaults} apply to every plugin declaration of the project. A feature configured in
+ * the {@code compatibility} block of a declaration takes precedence over the default.
+ * <pre>
+ * <i>// build.gradle.kts</i>
+ * pluginCompatibility {
+ *     defaults {
+ *         configurationCache = true
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * Rules configure the features of all declarations whose plugin IDs match a pattern. They take precedence over the
+ * defaults, but not over the {@code compatibility} block of a declaration.
+ * <pre>
+ * <i>// build.gradle.kts</i>
+ * pluginCompatibility {
+ *     rule("com.acme.internal.*") {
+ *         configurationCache = true
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * Build-wide defaults can be set with Gradle properties, for example in the {@code gradle.properties} file of the root
+ * project. The property name is {@value #DEFAULTS_PROPERTY_PREFIX} followed by the feature name, as in
+ * {@code org.gradle.plugin-compatibility.defaults.configurationCache=true}. Values set in the build script take
+ * precedence over Gradle properties.
+ *
+ * @since 1.1.0
+ */
+public abstract class PluginCompatibilityExtension {
+    /**
+     * The prefix of the Gradle properties that provide build-wide defaults.
+     *
+     * @since 1.1.0
+     */
+    public static final String DEFAULTS_PROPERTY_PREFIX = "org.gradle.plugin-compatibility.defaults.";
+
+    private final ObjectFactory objectFactory;
+    private final CompatibleFeatures defaults;
+    private final Map<String, CompatibleFeatures> rules = new LinkedHashMap<>();
+
+    /**
+     * Users should not be creating this class directly.
+     *
+     * @since 1.1.0
+     */
+    @Inject
+    public PluginCompatibilityExtension(ObjectFactory objectFactory) {
+        this.objectFactory = objectFactory;
+        this.defaults = objectFactory.newInstance(CompatibleFeatures.class);
+    }
+
+    /**
+     * Returns the features applied to every plugin declaration of the project, unless the declaration configures the
+     * feature itself.
+     *
+     * @return the {@link CompatibleFeatures} instance
+     * @since 1.1.0
+     */
+    public CompatibleFeatures getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * Applies the action to configure the {@linkplain #getDefaults() defaults}.
+     *
+     * @param action the configuration action
+     * @since 1.1.0
+     */
+    public void defaults(Action<? super CompatibleFeatures> action) {
+        action.execute(defaults);
+    }
+
+    /**
+     * Applies the action to configure the features of every plugin declaration whose ID matches the pattern.
+     * <p>
+     * The pattern is either a plugin ID, which only matches that ID, or a prefix followed by {@code *}, which matches
+     * every ID starting with the prefix, like {@code com.acme.internal.*}. The wildcard is only allowed at the end. If
+     * several rules match an ID, a feature takes its value from the most specific rule that configures it: a plugin ID
+     * is more specific than any prefix, and a longer prefix is more specific than a shorter one.
+     * <p>
+     * Configuring the same pattern again configures the same features. The {@code compatibility} block of a
+     * declaration and the entries of the catalog take precedence over the rules, which in turn take precedence over
+     * the {@linkplain #getDefaults() defaults}.
+     *
+     * @param pattern the plugin ID pattern
+     * @param action the configuration action
+     * @throws org.gradle.api.InvalidUserDataException if the pattern is malformed
+     * @since 1.1.0
+     */
+    public void rule(String pattern, Action<? super CompatibleFeatures> action) {
+        CompatibleFeatures features = rules.get(pattern);
+        if (features == null) {
+            CompatibilityRules.checkPattern(pattern);
+            features = objectFactory.newInstance(CompatibleFeatures.class);
+            rules.put(pattern, features);
+        }
+        action.execute(features);
+    }
+
+    /**
+     * Returns the features configured by the {@linkplain #rule(String, Action) rules}, keyed by pattern.
+     *
+     * @return the unmodifiable map of pattern to features
+     * @since 1.1.0
+     */
+    public Map<String, CompatibleFeatures> getRules() {
+        return Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * Whether to read the compatibility declared with {@link org.gradle.plugin.compatibility.annotations annotations} on
+     * the plugin implementation classes. Defaults to {@code false}.
+     * <p>
+     * When enabled, generating the plugin descriptors depends on the compilation of the plugin classes. Annotations only
+     * provide the features that the build script, the catalog and the defaults leave undeclared.
+     *
+     * @return the property
+     * @since 1.1.0
+     */
+    public abstract Property<Boolean> getReadAnnotations();
+
+    /**
+     * Whether to publish the declared compatibility as attributes of the variants, so it ends up in the Gradle Module
+     * Metadata. Defaults to {@code true}.
+     * <p>
+     * The attributes are needed at configuration time, so they can't wait for values derived from task outputs, and
+     * publishing fails if a feature is derived from a task output. Disable them in this case: the attributes are then
+     * left out of the metadata, while the plugin descriptors still get the resolved values.
+     *
+     * @return the property
+     * @since 1.1.0
+     */
+    public abstract Property<Boolean> getVariantAttributes();
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility;
+
+import org.gradle.plugin.compatibility.internal.PluginJarDescriptors;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Scans a directory tree of jars, such as a local Maven repository, and writes the compatibility declared by every
+ * Gradle plugin in them as a CSV or JSON matrix.
+ * <p>
+ * Only the zip central directory and the plugin descriptors of each jar are read. Jars are processed in parallel and
+ * the matrix is written while the directory is walked, so memory use doesn't grow with the number of jars. Features
+ * missing from a descriptor are reported as {@value CompatibilityDeclarationProtocol#UNDECLARED}.
+ * <p>
+ * The scanner doesn't need the Gradle API and can be run from the command line:
+ * <pre>
+ * java -cp compatibility-plugin.jar org.gradle.plugin.compatibility.PluginJarScanner [--format csv|json] [--threads N] &lt;directory&gt;
+ * </pre>
+ *
+ * @since 1.1.0
+ */
+public final class PluginJarScanner {
+    /**
+     * The output format of the matrix.
+     *
+     * @since 1.1.0
+     */
+    public enum Format {
+        /**
+         * One row per plugin, with a column per known feature.
+         */
+        CSV,
+        /**
+         * A JSON array with an object per plugin, including features unknown to this version of the scanner.
+         */
+        JSON
+    }
+
+    private final Format format;
+    private final int parallelism;
+
+    /**
+     * Creates a scanner.
+     *
+     * @param format the output format
+     * @param parallelism the number of jars to read concurrently
+     * @since 1.1.0
+     */
+    public PluginJarScanner(Format format, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+        }
+        this.format = format;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Scans all jars under the directory and writes the matrix to the output. Jar paths are written relative to the
+     * directory. Jars that can't be read are reported with an error instead of failing the scan.
+     *
+     * @param directory the directory to scan
+     * @param output the writer for the matrix, not closed by this method
+     * @return the number of scanned jars
+     * @throws IOException if walking the directory or writing the output fails
+     * @since 1.1.0
+     */
+    public long scan(Path directory, Writer output) throws IOException {
+        MatrixWriter writer = format == Format.CSV ? new CsvWriter(output) : new JsonWriter(output);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "plugin-jar-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Bounds the results held in memory while keeping the output in the order of the directory walk
+        int window = parallelism * 4;
+        Deque<Future<JarResult>> pending = new ArrayDeque<>(window);
+        long scanned = 0;
+        writer.start();
+        try (Stream<Path> files = Files.walk(directory)) {
+            Iterator<Path> jars = files
+                .filter(PluginJarDescriptors::isJar)
+                .iterator();
+            while (jars.hasNext()) {
+                Path jar = jars.next();
+                pending.add(executor.submit(() -> read(directory, jar)));
+                scanned++;
+                if (pending.size() >= window) {
+                    writer.write(await(pending.removeFirst()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                writer.write(await(pending.removeFirst()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        writer.finish();
+        output.flush();
+        return scanned;
+    }
+
+    private static JarResult read(Path directory, Path jar) {
+        String path = directory.relativize(jar).toString().replace('\\', '/');
+        try {
+            return new JarResult(path, PluginJarDescriptors.read(jar), null);
+        } catch (IOException | RuntimeException ex) {
+            return new JarResult(path, Collections.emptySortedMap(), String.valueOf(ex.getMessage()));
+        }
+    }
+
+    private static JarResult await(Future<JarResult> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning jars");
+        } catch (ExecutionException ex) {
+            throw new IOException("Failed to scan a jar", ex.getCause());
+        }
+    }
+
+    /**
+     * Runs the scanner from the command line. The matrix is written to the standard output.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the scan fails
+     * @since 1.1.0
+     */
+    public static void main(String[] args) throws IOException {
+        Format format = Format.CSV;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String directory = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                parallelism = Integer.parseInt(args[++i]);
+            } else if (directory == null && !args[i].startsWith("--")) {
+                directory = args[i];
+            } else {
+                directory = null;
+                break;
+            }
+        }
+        if (directory == null) {
+            System.err.println("Usage: PluginJarScanner [--format csv|json] [--threads N] <directory>");
+            System.exit(2);
+            return;
+        }
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        new PluginJarScanner(format, parallelism).scan(Paths.get(directory), output);
+    }
+
+    private static final class JarResult {
+        private final String path;
+        private final SortedMap<String, SortedMap<String, String>> plugins;
+        private final @Nullable String error;
+
+        JarResult(String path, SortedMap<String, SortedMap<String, String>> plugins, @Nullable String error) {
+            this.path = path;
+            this.plugins = plugins;
+            this.error = error;
+        }
+    }
+
+    private abstract static class MatrixWriter {
+        protected final Writer out;
+
+        MatrixWriter(Writer out) {
+            this.out = out;
+        }
+
+        abstract void start() throws IOException;
+
+        abstract void write(JarResult jar) throws IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    private static final class CsvWriter extends MatrixWriter {
+        CsvWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void start() throws IOException {
+            out.write("jar,plugin");
+            for (String feature : PluginJarDescriptors.KNOWN_FEATURES) {
+                out.write("," + feature);
+            }
+            out.write(",error\n");
+        }
+
+        @Override
+        void write(JarResult jar) throws IOException {
+            if (jar.error != null) {
+                String emptyColumns = repeat(",", PluginJarDescriptors.KNOWN_FEATURES.size());
+                out.write(escape(jar.path) + "," + emptyColumns + "," + escape(jar.error) + "\n");
+                return;
+            }
+            for (Map.Entry<String, SortedMap<String, String>> plugin : jar.plugins.entrySet()) {
+                out.write(escape(jar.path) + "," + escape(plugin.getKey()));
+                for (String feature : PluginJarDescriptors.KNOWN_FEATURES) {
+                    String value = plugin.getValue().get(feature);
+                    out.write("," + escape(value == null ? CompatibilityDeclarationProtocol.UNDECLARED : value));
+                }
+                out.write(",\n");
+            }
+        }
+
+        @Override
+        void finish() {}
+
+        private static String repeat(String value, int count) {
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                result.append(value);
+            }
+            return result.toString();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class JsonWriter extends MatrixWriter {
+        private boolean first = true;
+
+        JsonWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void start() throws IOException {
+            out.write("[");
+        }
+
+        @Override
+        void write(JarResult jar) throws IOException {
+            if (jar.error != null) {
+                separator();
+                out.write("{\"jar\":" + quote(jar.path) + ",\"error\":" + quote(jar.error) + "}");
+                return;
+            }
+            for (Map.Entry<String, SortedMap<String, String>> plugin : jar.plugins.entrySet()) {
+                separator();
+                out.write("{\"jar\":" + quote(jar.path) + ",\"plugin\":" + quote(plugin.getKey()) + ",\"features\":{");
+                boolean firstFeature = true;
+                SortedMap<String, String> features = PluginJarDescriptors.withKnownFeatures(plugin.getValue());
+                for (Map.Entry<String, String> feature : features.entrySet()) {
+                    if (!firstFeature) {
+                        out.write(",");
+                    }
+                    firstFeature = false;
+                    out.write(quote(feature.getKey()) + ":" + quote(feature.getValue()));
+                }
+                out.write("}}");
+            }
+        }
+
+        private void separator() throws IOException {
+            out.write(first ? "\n" : ",\n");
+            first = false;
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.write(first ? "]\n" : "\n]\n");
+        }
+
+        private static String quote(String value) {
+            StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    result.append('\\').append(c);
+                } else if (c < 0x20) {
+                    result.append(String.format("\\u%04x", (int) c));
+                } else {
+                    result.append(c);
+                }
+            }
+            return result.append('"').toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the compatibility of the annotated plugin class with Isolated Projects. Equivalent to setting
+ * {@code isolatedProjects} in the {@code compatibility} block of the plugin declaration that uses this class as
+ * its implementation class.
+ * <p>
+ * Requires the annotation processor, see {@link org.gradle.plugin.compatibility.annotations the package
+ * documentation}.
+ *
+ * @since 1.1.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface IsolatedProjectsCompatible {
+    /**
+     * Whether the plugin is compatible. Use {@code false} to declare that the plugin is known to be incompatible.
+     *
+     * @return {@code true} if the plugin is compatible
+     * @since 1.1.0
+     */
+    boolean value() default true;
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Annotations to declare the compatibility of a plugin on its implementation class.
+ * <p>
+ * The annotations are processed at compile time by an incremental annotation processor shipped with the plugin. Add
+ * the plugin artifact to both the {@code compileOnly} and {@code annotationProcessor} configurations, and enable the
+ * processed data in the build script:
+ * <pre>
+ * <i>// build.gradle.kts</i>
+ * dependencies {
+ *     compileOnly("org.gradle.plugin:compatibility-plugin:1.1.0")
+ *     annotationProcessor("org.gradle.plugin:compatibility-plugin:1.1.0")
+ * }
+ *
+ * pluginCompatibility {
+ *     readAnnotations = true
+ * }
+ * </pre>
+ * A feature configured in the {@code compatibility} block of a plugin declaration takes precedence over the annotations,
+ * and the annotations take precedence over the catalog, the rules and the defaults.
+ *
+ * @since 1.1.0
+ */
+@NullMarked
+package org.gradle.plugin.compatibility.annotations;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.InvalidUserDataException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Parser for files that map plugin IDs to feature support, in the format described by
+ * {@link org.gradle.plugin.compatibility.CompatibilityCatalogExtension}.
+ */
+public final class CompatibilityCatalog {
+    private CompatibilityCatalog() {
+    }
+
+    /**
+     * Parses the catalog into a map of plugin ID to packed {@link FeatureStates}, sorted by plugin ID.
+     *
+     * @param reader the catalog content
+     * @param source the description of the catalog location used in error messages
+     * @return the map of plugin ID to the packed feature states
+     * @throws IOException if reading fails
+     * @throws InvalidUserDataException if the content is malformed
+     */
+    public static SortedMap<String, Integer> parse(Reader reader, String source) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        SortedMap<String, Integer> result = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            // Plugin IDs contain dots, but feature names don't
+            int separator = key.lastIndexOf('.');
+            if (separator <= 0) {
+                throw new InvalidUserDataException(
+                    "Invalid key '" + key + "' in " + source + ". Expected <plugin id>.<feature>"
+                );
+            }
+            String pluginId = key.substring(0, separator);
+            CompatibilityFeature feature = findFeature(key.substring(separator + 1), key, source);
+            SupportLevel level = parseSupport(properties.getProperty(key).trim(), key, source);
+
+            int current = result.getOrDefault(pluginId, FeatureStates.NONE.toPacked());
+            result.put(pluginId, FeatureStates.fromPacked(current).with(feature, level).toPacked());
+        }
+        return result;
+    }
+
+    private static CompatibilityFeature findFeature(String name, String key, String source) {
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            if (feature.getPropertyName().equals(name)) {
+                return feature;
+            }
+        }
+        throw new InvalidUserDataException(
+            "Unknown feature '" + name + "' in key '" + key + "' in " + source + ". Known features: " + knownFeatures()
+        );
+    }
+
+    private static SupportLevel parseSupport(String value, String key, String source) {
+        if ("true".equalsIgnoreCase(value)) {
+            return SupportLevel.DECLARED_SUPPORTED;
+        } else if ("false".equalsIgnoreCase(value)) {
+            return SupportLevel.DECLARED_UNSUPPORTED;
+        }
+        throw new InvalidUserDataException(
+            "Invalid value '" + value + "' for key '" + key + "' in " + source + ". Expected true or false"
+        );
+    }
+
+    private static String knownFeatures() {
+        StringBuilder sb = new StringBuilder();
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(feature.getPropertyName());
+        }
+        return sb.toString();
+    }
+}
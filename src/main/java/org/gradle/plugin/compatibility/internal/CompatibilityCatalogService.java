@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.services.BuildServiceRegistration;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Holds the compatibility catalog for the whole build. The catalog is resolved once, when the service is created, and
+ * then shared by the descriptor tasks of all projects.
+ */
+public abstract class CompatibilityCatalogService implements BuildService<CompatibilityCatalogService.Parameters> {
+    public static final String NAME = "pluginCompatibilityCatalog";
+
+    public interface Parameters extends BuildServiceParameters {
+        /**
+         * Plugin ID to packed {@link FeatureStates}.
+         */
+        MapProperty<String, Integer> getEntries();
+    }
+
+    private final Map<String, Integer> entries;
+
+    public CompatibilityCatalogService() {
+        this.entries = getParameters().getEntries().get();
+    }
+
+    /**
+     * Returns the catalog service registered by {@link CompatibilitySettingsPlugin}, or {@code null} if the settings
+     * plugin isn't applied.
+     */
+    @SuppressWarnings("unchecked")
+    public static @Nullable Provider<CompatibilityCatalogService> find(Gradle gradle) {
+        BuildServiceRegistration<?, ?> registration = gradle.getSharedServices().getRegistrations().findByName(NAME);
+        if (registration == null) {
+            return null;
+        }
+        // Keep the original provider: Task.usesService only recognizes the providers of registered services
+        return (Provider<CompatibilityCatalogService>) (Provider<?>) registration.getService();
+    }
+
+    /**
+     * Returns the packed {@link FeatureStates} by plugin ID of all plugins in the catalog.
+     */
+    public Map<String, Integer> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Reads the compatibility catalog. Going through a {@link ValueSource} makes the catalog content, rather than the
+ * file, an input of the configuration cache.
+ */
+public abstract class CompatibilityCatalogValueSource
+    implements ValueSource<Map<String, Integer>, CompatibilityCatalogValueSource.Parameters> {
+
+    public interface Parameters extends ValueSourceParameters {
+        RegularFileProperty getCatalogFile();
+    }
+
+    @Override
+    public Map<String, Integer> obtain() {
+        if (!getParameters().getCatalogFile().isPresent()) {
+            return Collections.emptyMap();
+        }
+        File catalogFile = getParameters().getCatalogFile().get().getAsFile();
+        if (!catalogFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (Reader reader = Files.newBufferedReader(catalogFile.toPath(), StandardCharsets.ISO_8859_1)) {
+            return CompatibilityCatalog.parse(reader, catalogFile.getPath());
+        } catch (IOException ex) {
+            throw new GradleException("Failed to read the compatibility catalog " + catalogFile, ex);
+        }
+    }
+}
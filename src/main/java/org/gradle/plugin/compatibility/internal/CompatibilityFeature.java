@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.provider.Property;
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.gradle.plugin.compatibility.CompatibleFeatures;
+
+import java.util.function.Function;
+
+/**
+ * The registry of the Gradle features the plugin knows about.
+ * <p>
+ * Adding a new feature requires a new property in {@link CompatibleFeatures}, a name in
+ * {@link CompatibilityDeclarationProtocol} and a new constant here. The rest of the plugin iterates over the constants,
+ * so the new feature is picked up by snapshots, task inputs and descriptors automatically.
+ * <p>
+ * The ordinal of the constant defines the position of the feature in {@link FeatureStates}. Append new features at the
+ * end, so the existing positions stay stable.
+ */
+public enum CompatibilityFeature {
+    CONFIGURATION_CACHE(
+        "configurationCache",
+        CompatibilityDeclarationProtocol.FEATURE_CONFIGURATION_CACHE,
+        CompatibleFeatures::getConfigurationCache
+    ),
+    ISOLATED_PROJECTS(
+        "isolatedProjects",
+        CompatibilityDeclarationProtocol.FEATURE_ISOLATED_PROJECTS,
+        CompatibleFeatures::getIsolatedProjects
+    ),
+    PARALLEL_CONFIGURATION(
+        "parallelConfiguration",
+        CompatibilityDeclarationProtocol.FEATURE_PARALLEL_CONFIGURATION,
+        CompatibleFeatures::getParallelConfiguration
+    );
+
+    // values() clones the array on every call, and we iterate over the features a lot.
+    private static final CompatibilityFeature[] VALUES = values();
+
+    private final String propertyName;
+    private final String protocolName;
+    private final Function<CompatibleFeatures, Property<Boolean>> property;
+
+    CompatibilityFeature(
+        String propertyName,
+        String protocolName,
+        Function<CompatibleFeatures, Property<Boolean>> property
+    ) {
+        this.propertyName = propertyName;
+        this.protocolName = protocolName;
+        this.property = property;
+    }
+
+    /**
+     * Returns the name of the property in {@link CompatibleFeatures}, e.g. {@code configurationCache}.
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Returns the name of the feature in the plugin descriptor, e.g. {@code configuration-cache}.
+     */
+    public String getProtocolName() {
+        return protocolName;
+    }
+
+    /**
+     * Returns the name of the plugin descriptor property that holds the support level of this feature.
+     */
+    public String getDescriptorKey() {
+        return CompatibilityDeclarationProtocol.SUPPORT_FLAGS_PREFIX + protocolName;
+    }
+
+    /**
+     * Returns the property of the given {@link CompatibleFeatures} that configures this feature.
+     */
+    public Property<Boolean> getProperty(CompatibleFeatures features) {
+        return property.apply(features);
+    }
+
+    /**
+     * Returns all known features. The caller must not modify the returned array.
+     */
+    @SuppressWarnings("MutablePublicArray") // Internal API, avoids the copy made by values()
+    static CompatibilityFeature[] all() {
+        return VALUES;
+    }
+}
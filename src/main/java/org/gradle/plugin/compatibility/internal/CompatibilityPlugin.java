@@ -18,46 +18,26 @@ package org.gradle.plugin.compatibility.internal;
 
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.plugin.compatibility.internal.groovy.CompatibilityProjectExtension;
-import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
-import org.gradle.plugin.devel.tasks.GeneratePluginDescriptors;
 
+/**
+ * Applies the compatibility support to projects with the {@code java-gradle-plugin}.
+ * <p>
+ * Gradle inspects the declared methods of plugin classes when instantiating them, which loads every type in their
+ * signatures, including those of lambda bodies. This class is kept minimal, so applying it doesn't load the classes of
+ * features that the build doesn't use. The work is done by {@link PluginDevelopmentConfiguration}.
+ */
 @SuppressWarnings("unused") // Instantiated by Gradle
 public class CompatibilityPlugin implements Plugin<Project> {
+    // Matches JavaGradlePluginPlugin.GENERATE_PLUGIN_DESCRIPTORS_TASK_NAME, which isn't public
+    static final String PLUGIN_DESCRIPTORS_TASK_NAME = "pluginDescriptors";
+    static final String INDEX_ELEMENTS_CONFIGURATION_NAME = "pluginCompatibilityIndexElements";
+    static final String INDEX_USAGE = "gradle-plugin-compatibility-index";
 
     @Override
     public void apply(Project project) {
         project.getPluginManager().withPlugin(
             "java-gradle-plugin",
-            plugin -> {
-                configurePluginDescriptorsTask(project);
-
-                CompatibilityProjectExtension.install(project);
-
-                CompatibilityStrategy strategy = CompatibilityStrategy.getInstance();
-
-                project.getExtensions().configure(GradlePluginDevelopmentExtension.class, gradlePlugins -> {
-                    gradlePlugins.getPlugins().configureEach(decl -> {
-                        strategy.createExtension(decl, project);
-                    });
-                });
-            }
+            plugin -> PluginDevelopmentConfiguration.apply(project)
         );
     }
-
-    private static void configurePluginDescriptorsTask(Project project) {
-        project.getTasks()
-            .withType(GeneratePluginDescriptors.class)
-            .configureEach(task -> {
-                SerializeCompatibilityDataAction action =
-                    project.getObjects().newInstance(SerializeCompatibilityDataAction.class, task);
-
-                task.getInputs().property(
-                    "compatibilityFeatures",
-                    action.getSerializableCompatibilityData()
-                );
-
-                task.doLast("addSupportedFeatureFlags", action);
-            });
-    }
 }
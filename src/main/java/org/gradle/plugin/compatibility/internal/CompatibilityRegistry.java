@@ -16,15 +16,15 @@
 
 package org.gradle.plugin.compatibility.internal;
 
-
 import org.gradle.api.Action;
 import org.gradle.plugin.compatibility.CompatibilityExtension;
+import org.gradle.plugin.compatibility.CompatibleFeatures;
 import org.gradle.plugin.devel.PluginDeclaration;
+import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A holder for configurations of plugin declarations in the "legacy" mode.
@@ -42,6 +42,9 @@ import java.util.Objects;
  * This class has to be static-only because of Kotlin: there is no Project context available to the extension function.
  * This is also why we're storing actions rather than applying them immediately - there is no way to instantiate the {@link CompatibilityExtension}
  * to configure.
+ * <p>
+ * The actions are applied when the features are first read. Actions stored later would be lost, so reading seals the
+ * configuration of the declaration, and storing an action afterwards fails.
  */
 public class CompatibilityRegistry {
     // All three qualifiers of this HashMap are important:
@@ -50,21 +53,82 @@ public class CompatibilityRegistry {
     // - Identity: PluginDeclaration has name-based `equals` implementation.
     //     We don't want to mix different instances of them, between projects or build invocations even.
     //     Identity works well within the same project - task is able to find necessary declarations.
-    private static final ConcurrentWeakIdentityHashMap<PluginDeclaration, List<Action<CompatibilityExtension>>> FEATURE_CONFIGURATORS =
+    private static final ConcurrentWeakIdentityHashMap<PluginDeclaration, Configuration> FEATURE_CONFIGURATORS =
         new ConcurrentWeakIdentityHashMap<>();
 
+    /**
+     * Stores the action to configure the compatibility of the declaration.
+     *
+     * @throws IllegalStateException if the features of the declaration have already been {@linkplain #resolve read}
+     */
     public static void store(PluginDeclaration declaration, Action<? super CompatibilityExtension> action) {
-        // It is unlikely that we're going to configure the same plugin declaration concurrently,
-        // but it doesn't hurt to be prepared for that.
-        List<Action<CompatibilityExtension>> actions = FEATURE_CONFIGURATORS.computeIfAbsent(
-            declaration,
-            d -> Collections.synchronizedList(new ArrayList<>())
+        configuration(declaration).add(declaration, action::execute);
+    }
+
+    /**
+     * Returns the features of the declaration, configured by applying the stored actions to a new extension.
+     * <p>
+     * The first call seals the configuration of the declaration: the features are resolved once and returned by every
+     * later call, so they can be cached for the rest of the build, and later {@link #store} calls fail.
+     */
+    public static CompatibleFeatures resolve(
+        PluginDeclaration declaration,
+        Supplier<CompatibilityExtension> extensionFactory
+    ) {
+        return configuration(declaration).resolve(extensionFactory);
+    }
+
+    /**
+     * Returns the number of actions stored for the declaration, including the ones already applied.
+     */
+    static int getActionCount(PluginDeclaration declaration) {
+        return configuration(declaration).getActionCount();
+    }
+
+    private static Configuration configuration(PluginDeclaration declaration) {
+        return FEATURE_CONFIGURATORS.computeIfAbsent(declaration, d -> new Configuration());
+    }
+
+    static IllegalStateException sealedError(PluginDeclaration declaration) {
+        return new IllegalStateException(
+            "Cannot configure the compatibility of plugin '" + declaration.getName() + "' after it has been read. "
+                + "Configure it before the plugin descriptors are generated."
         );
-        actions.add(action::execute);
     }
 
-    public static List<Action<CompatibilityExtension>> getForDeclaration(PluginDeclaration declaration) {
-        // This should never return null, as we provide a non-null default value
-        return Objects.requireNonNull(FEATURE_CONFIGURATORS.getOrDefault(declaration, Collections.emptyList()));
+    /**
+     * The configuration actions of a declaration, until the first read seals them.
+     */
+    private static final class Configuration {
+        private final List<Action<CompatibilityExtension>> actions = new ArrayList<>();
+        private int actionCount;
+        private boolean sealed;
+        private @Nullable CompatibleFeatures resolved;
+
+        synchronized void add(PluginDeclaration declaration, Action<CompatibilityExtension> action) {
+            if (sealed) {
+                throw sealedError(declaration);
+            }
+            actions.add(action);
+            actionCount++;
+        }
+
+        synchronized int getActionCount() {
+            return actionCount;
+        }
+
+        synchronized CompatibleFeatures resolve(Supplier<CompatibilityExtension> extensionFactory) {
+            CompatibleFeatures result = resolved;
+            if (result == null) {
+                // Seal before applying, so the actions can't add more actions
+                sealed = true;
+                CompatibilityExtension extension = extensionFactory.get();
+                actions.forEach(action -> action.execute(extension));
+                actions.clear();
+                result = extension.getFeatures();
+                resolved = result;
+            }
+            return result;
+        }
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.NamedDomainObjectProvider;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.attributes.Usage;
+import org.gradle.plugin.compatibility.internal.report.CompatibilityReport;
+
+/**
+ * Aggregates the compatibility of the plugins built in other projects into a single report.
+ * <p>
+ * Projects with the compatibility plugin publish their compatibility index as a variant. The projects to report on are
+ * declared as dependencies of the {@value #AGGREGATION_CONFIGURATION_NAME} configuration, and their indexes are
+ * resolved like any other artifact, so the report doesn't access the model of other projects. Java projects that
+ * don't build plugins are skipped by the artifact type, but resolution is strict, so a dependency that can't be
+ * resolved fails the report instead of silently dropping its plugins.
+ */
+@SuppressWarnings("unused") // Instantiated by Gradle
+public class CompatibilityReportPlugin implements Plugin<Project> {
+    static final String AGGREGATION_CONFIGURATION_NAME = "pluginCompatibilityAggregation";
+    static final String INDEXES_CONFIGURATION_NAME = "pluginCompatibilityAggregationIndexes";
+    static final String REPORT_TASK_NAME = "compatibilityReport";
+
+    @Override
+    public void apply(Project project) {
+        NamedDomainObjectProvider<Configuration> aggregation = project.getConfigurations().register(
+            AGGREGATION_CONFIGURATION_NAME,
+            configuration -> {
+                configuration.setDescription("The projects to include in the compatibility report.");
+                configuration.setCanBeConsumed(false);
+                configuration.setCanBeResolved(false);
+            }
+        );
+        NamedDomainObjectProvider<Configuration> indexes = project.getConfigurations().register(
+            INDEXES_CONFIGURATION_NAME,
+            configuration -> {
+                configuration.setDescription("The compatibility indexes of the projects in the compatibility report.");
+                configuration.setCanBeConsumed(false);
+                configuration.setCanBeResolved(true);
+                configuration.extendsFrom(aggregation.get());
+                configuration.getAttributes().attribute(
+                    Usage.USAGE_ATTRIBUTE,
+                    project.getObjects().named(Usage.class, CompatibilityPlugin.INDEX_USAGE)
+                );
+            }
+        );
+
+        project.getTasks().register(REPORT_TASK_NAME, CompatibilityReport.class, task -> {
+            task.setGroup("reporting");
+            task.setDescription("Generates the compatibility report of the plugins built in the aggregated projects.");
+            // Variants without attributes match any request, so only accept the artifacts of the index type
+            task.getIndexes().from(indexes.map(configuration ->
+                configuration.getIncoming().artifactView(view -> {
+                    view.getAttributes().attribute(
+                        ArtifactTypeDefinition.ARTIFACT_TYPE_ATTRIBUTE,
+                        CompatibilityPlugin.INDEX_USAGE
+                    );
+                }).getFiles()
+            ));
+            task.getJsonReport().convention(
+                project.getLayout().getBuildDirectory().file("reports/plugin-compatibility/compatibility-report.json")
+            );
+            task.getHtmlReport().convention(
+                project.getLayout().getBuildDirectory().file("reports/plugin-compatibility/compatibility-report.html")
+            );
+        });
+    }
+}
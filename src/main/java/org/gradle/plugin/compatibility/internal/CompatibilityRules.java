@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.InvalidUserDataException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled {@linkplain org.gradle.plugin.compatibility.PluginCompatibilityExtension#rule rules} of a project,
+ * resolving the features of a plugin ID that the rules and the project defaults provide.
+ * <p>
+ * The patterns are compiled into a prefix trie. Each node stores the merged states of all wildcard rules whose prefix
+ * leads to it, more specific rules first, and the project defaults last. Resolving an ID walks the trie once, so the
+ * cost depends on the length of the ID, not on the number of rules.
+ */
+public final class CompatibilityRules {
+    /**
+     * The wildcard that may end a pattern.
+     */
+    public static final char WILDCARD = '*';
+
+    private final Node root;
+
+    private CompatibilityRules(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Checks that the pattern is a plugin ID, optionally followed by a {@linkplain #WILDCARD wildcard}.
+     *
+     * @param pattern the pattern
+     * @throws InvalidUserDataException if the pattern is malformed
+     */
+    public static void checkPattern(String pattern) {
+        int wildcard = pattern.indexOf(WILDCARD);
+        if (pattern.isEmpty() || (wildcard >= 0 && wildcard != pattern.length() - 1)) {
+            throw new InvalidUserDataException(
+                "Invalid plugin ID pattern '" + pattern + "'. Expected a plugin ID, optionally ending with '*'"
+            );
+        }
+    }
+
+    /**
+     * Compiles the rules.
+     *
+     * @param rules the map of pattern to the packed {@link FeatureStates} to apply
+     * @param defaults the packed states that apply to every plugin ID
+     * @return the compiled rules
+     */
+    public static CompatibilityRules compile(Map<String, Integer> rules, int defaults) {
+        Node root = new Node();
+        for (Map.Entry<String, Integer> rule : rules.entrySet()) {
+            String pattern = rule.getKey();
+            checkPattern(pattern);
+            boolean wildcard = pattern.charAt(pattern.length() - 1) == WILDCARD;
+            Node node = root;
+            int length = wildcard ? pattern.length() - 1 : pattern.length();
+            for (int i = 0; i < length; i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), c -> new Node());
+            }
+            if (wildcard) {
+                node.prefixStates = rule.getValue();
+            } else {
+                node.exactStates = rule.getValue();
+            }
+        }
+        root.mergePrefixStates(defaults);
+        return new CompatibilityRules(root);
+    }
+
+    /**
+     * Resolves the packed states that the rules and the defaults provide for the plugin ID.
+     *
+     * @param pluginId the plugin ID
+     * @return the packed {@link FeatureStates}
+     */
+    public int resolve(String pluginId) {
+        Node node = root;
+        for (int i = 0; i < pluginId.length(); i++) {
+            Node child = node.children.get(pluginId.charAt(i));
+            if (child == null) {
+                // No longer pattern can match
+                return node.prefixStates;
+            }
+            node = child;
+        }
+        return FeatureStates.orElse(node.exactStates, node.prefixStates);
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        int prefixStates;
+        int exactStates;
+
+        /**
+         * Merges the states of the less specific wildcard rules into the states of this node and its descendants.
+         */
+        void mergePrefixStates(int inherited) {
+            prefixStates = FeatureStates.orElse(prefixStates, inherited);
+            for (Node child : children.values()) {
+                child.mergePrefixStates(prefixStates);
+            }
+        }
+    }
+}
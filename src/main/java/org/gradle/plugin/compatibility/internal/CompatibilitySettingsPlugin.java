@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.initialization.Settings;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Provider;
+import org.gradle.plugin.compatibility.CompatibilityCatalogExtension;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Settings plugin that provides the build-wide compatibility catalog to all projects.
+ * <p>
+ * The catalog is read through {@link CompatibilityCatalogValueSource} and stored in {@link CompatibilityCatalogService},
+ * so it is parsed once per build no matter how many projects declare plugins. Projects look the service up by name, see
+ * {@link CompatibilityCatalogService#find(org.gradle.api.invocation.Gradle)}.
+ */
+@SuppressWarnings("unused") // Instantiated by Gradle
+public class CompatibilitySettingsPlugin implements Plugin<Settings> {
+    private final ObjectFactory objectFactory;
+
+    @Inject
+    public CompatibilitySettingsPlugin(ObjectFactory objectFactory) {
+        this.objectFactory = objectFactory;
+    }
+
+    @Override
+    public void apply(Settings settings) {
+        CompatibilityCatalogExtension extension =
+            settings.getExtensions().create("pluginCompatibilityCatalog", CompatibilityCatalogExtension.class);
+
+        // There is no ProjectLayout for settings in older Gradle versions, so resolve the default location manually
+        File defaultCatalog = new File(settings.getSettingsDir(), CompatibilityCatalogExtension.DEFAULT_CATALOG_LOCATION);
+        extension.getCatalogFile().convention(objectFactory.fileProperty().fileValue(defaultCatalog));
+
+        Provider<Map<String, Integer>> catalog = settings.getProviders().of(
+            CompatibilityCatalogValueSource.class,
+            spec -> spec.getParameters().getCatalogFile().set(extension.getCatalogFile())
+        );
+
+        settings.getGradle().getSharedServices().registerIfAbsent(
+            CompatibilityCatalogService.NAME,
+            CompatibilityCatalogService.class,
+            spec -> spec.getParameters().getEntries().set(catalog)
+        );
+    }
+}
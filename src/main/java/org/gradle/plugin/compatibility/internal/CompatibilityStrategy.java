@@ -46,7 +46,16 @@ public interface CompatibilityStrategy {
      */
     void configure(PluginDeclaration declaration, Action<? super CompatibilityExtension> configuration);
 
+    /**
+     * Counts the configuration of the given plugin declaration in the costs of its project. Only called if the cost
+     * report is enabled.
+     */
+    void recordCosts(PluginDeclaration declaration, ConfigurationCosts costs);
+
     static CompatibilityStrategy getInstance() {
-        return CompatibilityStrategyHolder.INSTANCE;
+        // Each strategy holds its own instance, so only the one for the running Gradle version is loaded
+        return GradleVersion.current().compareTo(EXTENSION_AWARE_MIN_VERSION) >= 0
+            ? ExtensionAwareStrategy.INSTANCE
+            : RegistryStrategy.INSTANCE;
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.provider.Provider;
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes the compatibility of the plugins in the jar as attributes of the outgoing variants, so it ends up in the
+ * Gradle Module Metadata.
+ */
+final class CompatibilityVariantAttributes {
+    private static final String[] VARIANTS = {
+        JavaPlugin.API_ELEMENTS_CONFIGURATION_NAME,
+        JavaPlugin.RUNTIME_ELEMENTS_CONFIGURATION_NAME
+    };
+
+    private CompatibilityVariantAttributes() {}
+
+    /**
+     * Adds an attribute per feature to the variants of the {@code java} component. The values are computed from the
+     * packed {@link FeatureStates} of each plugin when the attributes are queried.
+     * <p>
+     * An attribute can't be removed once added, so whether to add them is decided after the build script has run. If
+     * the attributes are disabled, they aren't added, and the compatibility isn't queried.
+     */
+    static void configure(
+        Project project,
+        Provider<Map<String, Integer>> compatibility,
+        Provider<Boolean> enabled
+    ) {
+        project.afterEvaluate(evaluated -> {
+            if (!enabled.get()) {
+                return;
+            }
+            Provider<Map<String, Integer>> checked =
+                project.provider(() -> checkNotTaskDerived(project, compatibility));
+            for (String variant : VARIANTS) {
+                project.getConfigurations().named(variant).configure(configuration -> {
+                    for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+                        configuration.getAttributes().attributeProvider(
+                            attribute(feature),
+                            checked.map(states -> aggregate(states, feature).getProtocolValue())
+                        );
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the compatibility, after checking that no value is derived from a task output. Such values aren't known
+     * before the task runs, while the attributes are needed to build the task graph.
+     */
+    private static Map<String, Integer> checkNotTaskDerived(
+        Project project,
+        Provider<Map<String, Integer>> compatibility
+    ) {
+        Set<? extends Task> producers = project.files(compatibility).getBuildDependencies().getDependencies(null);
+        if (!producers.isEmpty()) {
+            List<String> paths = new ArrayList<>();
+            producers.forEach(task -> paths.add(task.getPath()));
+            Collections.sort(paths);
+            throw new InvalidUserDataException(
+                "The plugin compatibility of " + project + " is derived from the outputs of " + paths
+                    + ", which aren't known when the variant attributes are needed. Disable the attributes with "
+                    + "pluginCompatibility { variantAttributes = false }, or declare the values without task outputs."
+            );
+        }
+        return compatibility.get();
+    }
+
+    static Attribute<String> attribute(CompatibilityFeature feature) {
+        return Attribute.of(
+            CompatibilityDeclarationProtocol.VARIANT_ATTRIBUTE_PREFIX + feature.getProtocolName(),
+            String.class
+        );
+    }
+
+    /**
+     * Returns the support level shared by all plugins. A single plugin that doesn't support the feature makes the jar
+     * unsupported, and the jar is only supported if every plugin declares support.
+     */
+    static SupportLevel aggregate(Map<String, Integer> states, CompatibilityFeature feature) {
+        if (states.isEmpty()) {
+            return SupportLevel.UNDECLARED;
+        }
+        SupportLevel result = SupportLevel.DECLARED_SUPPORTED;
+        for (int packed : states.values()) {
+            SupportLevel level = FeatureStates.fromPacked(packed).get(feature);
+            if (level == SupportLevel.DECLARED_UNSUPPORTED) {
+                return level;
+            }
+            if (level == SupportLevel.UNDECLARED) {
+                result = level;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.plugin.compatibility.internal.scan.ScanConfigurationCacheCompatibility;
+import org.gradle.plugin.compatibility.internal.smoke.ConfigurationCacheSmokeTest;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.plugin.devel.tasks.GeneratePluginDescriptors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registers the opt-in checks of the declared Configuration Cache compatibility: the bytecode scan and the smoke test.
+ * <p>
+ * The checks have their own plugin, so builds that don't run them don't load their task classes. Applying this plugin
+ * also applies {@link CompatibilityPlugin}.
+ */
+@SuppressWarnings("unused") // Instantiated by Gradle
+public class CompatibilityVerificationPlugin implements Plugin<Project> {
+    static final String SCAN_TASK_NAME = "scanConfigurationCacheCompatibility";
+    static final String SMOKE_TEST_TASK_NAME = "configurationCacheSmokeTest";
+    static final String SMOKE_TEST_INSTALLATIONS_PROPERTY =
+        "org.gradle.plugin-compatibility.smoke-test.gradle-installations";
+
+    @Override
+    public void apply(Project project) {
+        project.getPluginManager().apply(CompatibilityPlugin.class);
+        project.getPluginManager().withPlugin("java-gradle-plugin", plugin -> {
+            registerScanTask(project);
+            registerSmokeTestTask(project);
+        });
+    }
+
+    /**
+     * Registers the bytecode scan. It isn't wired into {@code check}, as it's heuristic.
+     */
+    private static void registerScanTask(Project project) {
+        GradlePluginDevelopmentExtension gradlePlugins =
+            project.getExtensions().getByType(GradlePluginDevelopmentExtension.class);
+        TaskProvider<GeneratePluginDescriptors> pluginDescriptors = project.getTasks().named(
+            CompatibilityPlugin.PLUGIN_DESCRIPTORS_TASK_NAME,
+            GeneratePluginDescriptors.class
+        );
+        project.getTasks().register(
+            SCAN_TASK_NAME,
+            ScanConfigurationCacheCompatibility.class,
+            task -> {
+                task.setGroup("plugin development");
+                task.setDescription("Scans the plugin classes for code that breaks the Configuration Cache.");
+                task.getClasses().from(
+                    project.provider(() -> gradlePlugins.getPluginSourceSet().getOutput().getClassesDirs())
+                );
+                task.getPluginDescriptors().set(
+                    pluginDescriptors.flatMap(GeneratePluginDescriptors::getOutputDirectory)
+                );
+                task.getVerify().convention(false);
+                task.getReportFile().convention(
+                    project.getLayout()
+                        .getBuildDirectory()
+                        .file("reports/plugin-compatibility/configuration-cache-scan.txt")
+                );
+                task.getCacheFile().convention(
+                    project.getLayout().getBuildDirectory().file("tmp/" + SCAN_TASK_NAME + "/class-facts.bin")
+                );
+            }
+        );
+    }
+
+    /**
+     * Registers the smoke test. The Gradle installations are machine-specific, so by default they come from a
+     * comma-separated Gradle property, which can be set in the user's {@code gradle.properties}.
+     */
+    private static void registerSmokeTestTask(Project project) {
+        GradlePluginDevelopmentExtension gradlePlugins =
+            project.getExtensions().getByType(GradlePluginDevelopmentExtension.class);
+        TaskProvider<GeneratePluginDescriptors> pluginDescriptors = project.getTasks().named(
+            CompatibilityPlugin.PLUGIN_DESCRIPTORS_TASK_NAME,
+            GeneratePluginDescriptors.class
+        );
+        project.getTasks().register(
+            SMOKE_TEST_TASK_NAME,
+            ConfigurationCacheSmokeTest.class,
+            task -> {
+                task.setGroup("plugin development");
+                task.setDescription("Runs the plugins with the Configuration Cache on the local Gradle installations.");
+                task.getPluginClasspath().from(
+                    project.getTasks().named(gradlePlugins.getPluginSourceSet().getJarTaskName()),
+                    project.provider(() -> project.getConfigurations().getByName(
+                        gradlePlugins.getPluginSourceSet().getRuntimeClasspathConfigurationName()
+                    ))
+                );
+                task.getTestKitClasspath().from(
+                    project.getConfigurations().detachedConfiguration(project.getDependencies().gradleTestKit())
+                );
+                task.getPluginDescriptors().set(
+                    pluginDescriptors.flatMap(GeneratePluginDescriptors::getOutputDirectory)
+                );
+                task.getGradleInstallations().from(
+                    project.getProviders().gradleProperty(SMOKE_TEST_INSTALLATIONS_PROPERTY).map(paths -> {
+                        List<String> result = new ArrayList<>();
+                        for (String path : paths.split(",")) {
+                            if (!path.trim().isEmpty()) {
+                                result.add(path.trim());
+                            }
+                        }
+                        return result;
+                    }).orElse(Collections.emptyList())
+                );
+                task.getTaskNames().convention(Collections.singletonList("help"));
+                task.getResultsCache().convention(
+                    project.getLayout().getBuildDirectory().dir("plugin-compatibility/smoke-test/results")
+                );
+                task.getWorkingDirectory().convention(
+                    project.getLayout().getBuildDirectory().dir("tmp/" + SMOKE_TEST_TASK_NAME)
+                );
+                task.getReportFile().convention(
+                    project.getLayout()
+                        .getBuildDirectory()
+                        .file("reports/plugin-compatibility/configuration-cache-smoke-test.txt")
+                );
+            }
+        );
+    }
+}
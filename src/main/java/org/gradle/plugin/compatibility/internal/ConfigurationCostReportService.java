@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.plugin.compatibility.internal.ConfigurationCosts.Counter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the {@link ConfigurationCosts} of all projects and writes them as a JSON report when the build finishes.
+ * The report is opt-in: the service is only registered if the {@value #ENABLED_PROPERTY} Gradle property is
+ * {@code true}.
+ * <p>
+ * With the Configuration Cache, the instance used at configuration time is closed before the tasks run, and a new one
+ * records the descriptor sizes. Each instance merges its counters into the state of the same configuration, kept next
+ * to the report, so the report covers both. The counters of the configuration are only recorded by the instance that
+ * configured the build, and are added to the state. The counters of the tasks are recorded by every build that runs
+ * them, so builds that reuse the configuration replace them, unless the tasks were up-to-date.
+ */
+public abstract class ConfigurationCostReportService
+    implements BuildService<ConfigurationCostReportService.Parameters>, AutoCloseable {
+    public static final String NAME = "pluginCompatibilityCostReport";
+    public static final String ENABLED_PROPERTY = "org.gradle.plugin-compatibility.cost-report";
+
+    public interface Parameters extends BuildServiceParameters {
+        RegularFileProperty getReportFile();
+
+        /**
+         * The counters merged so far, in the {@link Properties} format.
+         */
+        RegularFileProperty getStateFile();
+
+        /**
+         * Identifies the configuration of the build, which all the instances of the service share.
+         */
+        Property<String> getConfigurationId();
+    }
+
+    private final Map<String, ConfigurationCosts> projects = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the service, unless another project already has. The report and the state are kept in the build
+     * directory of the root project.
+     */
+    static void register(Project project, Provider<Directory> rootBuildDirectory) {
+        project.getGradle().getSharedServices().registerIfAbsent(
+            NAME,
+            ConfigurationCostReportService.class,
+            spec -> {
+                spec.getParameters().getReportFile().set(
+                    rootBuildDirectory.map(dir -> dir.file("reports/plugin-compatibility/configuration-costs.json"))
+                );
+                spec.getParameters().getStateFile().set(
+                    rootBuildDirectory.map(dir -> dir.file("tmp/plugin-compatibility/configuration-costs.properties"))
+                );
+                spec.getParameters().getConfigurationId().set(UUID.randomUUID().toString());
+            }
+        );
+    }
+
+    ConfigurationCosts forProject(String projectPath) {
+        return projects.computeIfAbsent(projectPath, path -> new ConfigurationCosts());
+    }
+
+    @Override
+    public void close() {
+        Path stateFile = getParameters().getStateFile().get().getAsFile().toPath();
+        Path reportFile = getParameters().getReportFile().get().getAsFile().toPath();
+        Map<String, long[]> merged = readState(stateFile);
+        projects.forEach((path, costs) -> {
+            long[] values = merged.computeIfAbsent(path, p -> new long[Counter.all().length]);
+            for (Counter counter : Counter.all()) {
+                long value = costs.get(counter);
+                if (!counter.isRecordedByTasks()) {
+                    values[counter.ordinal()] += value;
+                } else if (value != 0) {
+                    values[counter.ordinal()] = value;
+                }
+            }
+        });
+        try {
+            writeState(stateFile, merged);
+            writeReport(reportFile, merged);
+        } catch (IOException ex) {
+            throw new GradleException("Failed to write the configuration cost report to " + reportFile, ex);
+        }
+    }
+
+    /**
+     * Returns the counters by project path merged by other instances for the same configuration, sorted by the path.
+     */
+    private Map<String, long[]> readState(Path stateFile) {
+        Map<String, long[]> result = new TreeMap<>();
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            state.load(in);
+        } catch (NoSuchFileException ex) {
+            return result;
+        } catch (IOException ex) {
+            throw new GradleException("Failed to read the configuration cost state from " + stateFile, ex);
+        }
+        if (!getParameters().getConfigurationId().get().equals(state.getProperty("configurationId"))) {
+            return result;
+        }
+        for (Counter counter : Counter.all()) {
+            String suffix = "." + counter.getReportName();
+            for (String key : state.stringPropertyNames()) {
+                if (key.endsWith(suffix)) {
+                    String path = key.substring(0, key.length() - suffix.length());
+                    result.computeIfAbsent(path, p -> new long[Counter.all().length])[counter.ordinal()] =
+                        Long.parseLong(state.getProperty(key));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void writeState(Path stateFile, Map<String, long[]> costs) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("configurationId", getParameters().getConfigurationId().get());
+        costs.forEach((path, values) -> {
+            for (Counter counter : Counter.all()) {
+                state.setProperty(path + "." + counter.getReportName(), Long.toString(values[counter.ordinal()]));
+            }
+        });
+        Files.createDirectories(stateFile.getParent());
+        try (OutputStream out = Files.newOutputStream(stateFile)) {
+            state.store(out, null);
+        }
+    }
+
+    private static void writeReport(Path reportFile, Map<String, long[]> costs) throws IOException {
+        Files.createDirectories(reportFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"projects\": [");
+            Iterator<Map.Entry<String, long[]>> projects = costs.entrySet().iterator();
+            while (projects.hasNext()) {
+                Map.Entry<String, long[]> project = projects.next();
+                writer.write("\n    {\n      \"path\": \"" + jsonEscape(project.getKey()) + "\"");
+                for (Counter counter : Counter.all()) {
+                    writer.write(",\n      \"" + counter.getReportName() + "\": "
+                        + project.getValue()[counter.ordinal()]);
+                }
+                writer.write(projects.hasNext() ? "\n    }," : "\n    }\n  ");
+            }
+            writer.write("]\n}\n");
+        }
+    }
+
+    private static String jsonEscape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
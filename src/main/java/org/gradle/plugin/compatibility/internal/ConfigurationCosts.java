@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.file.Directory;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildServiceRegistration;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The costs of the plugin in a project, collected for the opt-in report of {@link ConfigurationCostReportService}.
+ * <p>
+ * Code that always runs checks whether the report is enabled before touching this class, so the class isn't even
+ * loaded otherwise.
+ */
+final class ConfigurationCosts {
+    /**
+     * The reported counters, in report order.
+     */
+    enum Counter {
+        /**
+         * Nanoseconds spent in the code of the plugin while configuring the project.
+         */
+        APPLY_NANOS("applyNanos", false),
+        DECLARATIONS("declarations", false),
+        ACTIONS_STORED("actionsStored", false),
+        ACTIONS_REPLAYED("actionsReplayed", false),
+        EXTENSIONS_INSTANTIATED("extensionsInstantiated", false),
+        DESCRIPTOR_BYTES("descriptorBytes", true);
+
+        private static final Counter[] ALL = values();
+
+        private final String reportName;
+        private final boolean recordedByTasks;
+
+        Counter(String reportName, boolean recordedByTasks) {
+            this.reportName = reportName;
+            this.recordedByTasks = recordedByTasks;
+        }
+
+        /**
+         * Tells whether the counter is recorded by the tasks, in every build that runs them, rather than while the
+         * project is configured, which happens once per configuration.
+         */
+        boolean isRecordedByTasks() {
+            return recordedByTasks;
+        }
+
+        static Counter[] all() {
+            return ALL;
+        }
+
+        String getReportName() {
+            return reportName;
+        }
+    }
+
+    private final AtomicLongArray counters = new AtomicLongArray(Counter.all().length);
+
+    /**
+     * Returns the costs of the project. The report must be enabled for the build.
+     */
+    static ConfigurationCosts of(Project project) {
+        return service(project).get().forProject(project.getPath());
+    }
+
+    @SuppressWarnings("unchecked")
+    static Provider<ConfigurationCostReportService> service(Project project) {
+        BuildServiceRegistration<?, ?> registration =
+            project.getGradle().getSharedServices().getRegistrations().getByName(ConfigurationCostReportService.NAME);
+        // Keep the original provider: Task.usesService only recognizes the providers of registered services
+        return (Provider<ConfigurationCostReportService>) (Provider<?>) registration.getService();
+    }
+
+    void add(Counter counter, long delta) {
+        counters.addAndGet(counter.ordinal(), delta);
+    }
+
+    long get(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Adds the time elapsed since {@code startNanos}, as returned by {@link System#nanoTime()}.
+     */
+    void addElapsed(long startNanos) {
+        add(Counter.APPLY_NANOS, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records the size of the descriptors after they have been generated. Up-to-date descriptors aren't written, so
+     * they aren't counted.
+     */
+    static final class DescriptorSizeAction implements Action<Task> {
+        private final Provider<ConfigurationCostReportService> service;
+        private final String projectPath;
+        private final Provider<Directory> descriptors;
+
+        DescriptorSizeAction(
+            Provider<ConfigurationCostReportService> service,
+            String projectPath,
+            Provider<Directory> descriptors
+        ) {
+            this.service = service;
+            this.projectPath = projectPath;
+            this.descriptors = descriptors;
+        }
+
+        @Override
+        public void execute(Task task) {
+            File[] files = descriptors.get().getAsFile().listFiles((dir, name) -> name.endsWith(".properties"));
+            long bytes = 0;
+            if (files != null) {
+                for (File file : files) {
+                    bytes += file.length();
+                }
+            }
+            service.get().forProject(projectPath).add(Counter.DESCRIPTOR_BYTES, bytes);
+        }
+    }
+}
@@ -22,12 +22,19 @@ import org.gradle.api.plugins.ExtensionAware;
 import org.gradle.plugin.compatibility.CompatibilityExtension;
 import org.gradle.plugin.compatibility.CompatibleFeatures;
 import org.gradle.plugin.devel.PluginDeclaration;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Strategy for Gradle >= 8.14 where PluginDeclaration implements ExtensionAware.
  * Uses the ExtensionAware API to directly attach and configure compatibility extensions.
  */
 class ExtensionAwareStrategy implements CompatibilityStrategy {
+    static final ExtensionAwareStrategy INSTANCE = new ExtensionAwareStrategy();
+
+    // The costs of the project of each declaration, as configure() has no project. Only created once a build enables
+    // the cost report, so the map and the costs classes aren't loaded otherwise.
+    private volatile @Nullable ConcurrentWeakIdentityHashMap<PluginDeclaration, ConfigurationCosts> costs;
+
     @Override
     public void createExtension(PluginDeclaration declaration, Project project) {
         checkDeclaration(declaration);
@@ -47,9 +54,31 @@ class ExtensionAwareStrategy implements CompatibilityStrategy {
         checkDeclaration(declaration);
         ExtensionAware extensionAware = (ExtensionAware) declaration;
         CompatibilityExtension extension = extensionAware.getExtensions().getByType(CompatibilityExtension.class);
+        ConcurrentWeakIdentityHashMap<PluginDeclaration, ConfigurationCosts> costs = this.costs;
+        if (costs != null) {
+            ConfigurationCosts projectCosts = costs.getOrDefault(declaration, null);
+            if (projectCosts != null) {
+                projectCosts.add(ConfigurationCosts.Counter.ACTIONS_STORED, 1);
+            }
+        }
         configuration.execute(extension);
     }
 
+    @Override
+    public void recordCosts(PluginDeclaration declaration, ConfigurationCosts projectCosts) {
+        ConcurrentWeakIdentityHashMap<PluginDeclaration, ConfigurationCosts> costs = this.costs;
+        if (costs == null) {
+            synchronized (this) {
+                costs = this.costs;
+                if (costs == null) {
+                    costs = new ConcurrentWeakIdentityHashMap<>();
+                    this.costs = costs;
+                }
+            }
+        }
+        costs.computeIfAbsent(declaration, key -> projectCosts);
+    }
+
     private void checkDeclaration(PluginDeclaration declaration) {
         if (!(declaration instanceof ExtensionAware)) {
             throw new IllegalStateException("ExtensionAwareStrategy requires PluginDeclaration to implement ExtensionAware");
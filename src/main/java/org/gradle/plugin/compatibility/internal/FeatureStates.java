@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An immutable snapshot of the support levels of all {@link CompatibilityFeature}s of a single plugin.
+ * <p>
+ * The support levels are packed into a single {@code int}, two bits per feature, with the feature ordinal defining the
+ * position. The packed form is used as-is for task inputs, so a snapshot costs the same no matter how many features
+ * are declared, and there are no per-feature objects to box, hash or serialize.
+ * <p>
+ * Instances are interned: every snapshot with the same support levels is the same object, so builds with many plugin
+ * declarations only hold as many snapshots as there are distinct configurations. The same holds for the boxed packed
+ * form returned by {@link #toPackedValue()}, which is what task inputs keep.
+ */
+public final class FeatureStates {
+    private static final int BITS_PER_FEATURE = 2;
+    private static final int FEATURE_MASK = 0b11;
+    // Selects the low bit of every two-bit slot.
+    private static final int LOW_BITS = 0x5555_5555;
+
+    // Every valid snapshot, indexed by the packed form. There are only 3^n valid ones for n features.
+    private static final FeatureStates[] INTERNED;
+
+    static {
+        int bits = CompatibilityFeature.all().length * BITS_PER_FEATURE;
+        // Keep the interning table small; the packed form itself would allow up to 16 features
+        if (bits > Short.SIZE) {
+            throw new AssertionError("Too many features to intern the packed feature states");
+        }
+        INTERNED = new FeatureStates[1 << bits];
+        for (int packed = 0; packed < INTERNED.length; packed++) {
+            if (isValid(packed)) {
+                INTERNED[packed] = new FeatureStates(packed);
+            }
+        }
+    }
+
+    /**
+     * The snapshot with every feature undeclared.
+     */
+    public static final FeatureStates NONE = INTERNED[0];
+
+    private final int packed;
+    private final Integer packedValue;
+
+    private FeatureStates(int packed) {
+        this.packed = packed;
+        this.packedValue = packed;
+    }
+
+    /**
+     * Restores the snapshot from its packed form, as returned by {@link #toPacked()}.
+     *
+     * @throws IllegalArgumentException if the value doesn't represent a valid snapshot
+     */
+    public static FeatureStates fromPacked(int packed) {
+        FeatureStates result = packed >= 0 && packed < INTERNED.length ? INTERNED[packed] : null;
+        if (result == null) {
+            throw new IllegalArgumentException("Invalid packed feature states: " + Integer.toBinaryString(packed));
+        }
+        return result;
+    }
+
+    private static boolean isValid(int packed) {
+        // Code 0b11 isn't used by any support level: both bits of a slot are set only in corrupted values.
+        return (packed & (packed >>> 1) & LOW_BITS) == 0;
+    }
+
+    /**
+     * Returns the packed form of this snapshot, suitable for task inputs and serialization.
+     */
+    public int toPacked() {
+        return packed;
+    }
+
+    /**
+     * Returns the boxed packed form of this snapshot. Snapshots are interned, so equal values are the same object.
+     */
+    public Integer toPackedValue() {
+        return packedValue;
+    }
+
+    /**
+     * Returns the support level of the given feature.
+     */
+    public SupportLevel get(CompatibilityFeature feature) {
+        return SupportLevel.fromCode((packed >>> shift(feature)) & FEATURE_MASK);
+    }
+
+    /**
+     * Returns a copy of this snapshot with the support level of the given feature replaced.
+     */
+    public FeatureStates with(CompatibilityFeature feature, SupportLevel level) {
+        int shift = shift(feature);
+        return fromPacked((packed & ~(FEATURE_MASK << shift)) | (level.code() << shift));
+    }
+
+    /**
+     * Returns a snapshot where every feature undeclared in this snapshot takes its value from the fallback.
+     * Declared features keep their values.
+     */
+    public FeatureStates orElse(FeatureStates fallback) {
+        return fromPacked(orElse(packed, fallback.packed));
+    }
+
+    /**
+     * Packed version of {@link #orElse(FeatureStates)}.
+     */
+    static int orElse(int packed, int fallback) {
+        // A slot is declared if any of its two bits is set. Spread the flag to both bits to get the mask of slots that
+        // must be kept.
+        int declared = (packed | (packed >>> 1)) & LOW_BITS;
+        int keep = declared | (declared << 1);
+        return packed | (fallback & ~keep);
+    }
+
+    /**
+     * Returns {@code true} if no feature is declared.
+     */
+    public boolean isEmpty() {
+        return packed == 0;
+    }
+
+    private static int shift(CompatibilityFeature feature) {
+        return feature.ordinal() * BITS_PER_FEATURE;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return packed == ((FeatureStates) o).packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return packed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FeatureStates{");
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            if (feature.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(feature.getPropertyName()).append('=').append(get(feature).getProtocolValue());
+        }
+        return sb.append('}').toString();
+    }
+}
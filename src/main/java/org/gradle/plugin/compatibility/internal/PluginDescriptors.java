@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.GradleException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Reads and writes the compatibility declared in plugin descriptors, i.e. the
+ * {@code META-INF/gradle-plugins/<id>.properties} files.
+ */
+public final class PluginDescriptors {
+    /**
+     * The file name suffix of a plugin descriptor. The rest of the file name is the plugin ID.
+     */
+    public static final String DESCRIPTOR_SUFFIX = ".properties";
+
+    private static final String IMPLEMENTATION_CLASS_KEY = "implementation-class";
+
+    private PluginDescriptors() {}
+
+    /**
+     * Extracts the declared support levels from the descriptor properties. Missing and unknown values are undeclared.
+     */
+    public static FeatureStates parse(Properties descriptor) {
+        FeatureStates result = FeatureStates.NONE;
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            String value = descriptor.getProperty(feature.getDescriptorKey());
+            SupportLevel level = value == null ? null : SupportLevel.fromProtocolValue(value);
+            if (level != null) {
+                result = result.with(feature, level);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads all descriptors in the directory, e.g. the output of the {@code pluginDescriptors} task. The result is keyed
+     * by plugin ID and sorted.
+     */
+    public static SortedMap<String, FeatureStates> readDirectory(File directory) {
+        SortedMap<String, FeatureStates> result = new TreeMap<>();
+        readProperties(directory).forEach((pluginId, properties) -> result.put(pluginId, parse(properties)));
+        return result;
+    }
+
+    /**
+     * Reads the implementation classes of all descriptors in the directory, keyed by plugin ID and sorted. Descriptors
+     * without an implementation class are skipped.
+     */
+    public static SortedMap<String, String> readImplementationClasses(File directory) {
+        SortedMap<String, String> result = new TreeMap<>();
+        readProperties(directory).forEach((pluginId, properties) -> {
+            String implementationClass = properties.getProperty(IMPLEMENTATION_CLASS_KEY);
+            if (implementationClass != null) {
+                result.put(pluginId, implementationClass.trim());
+            }
+        });
+        return result;
+    }
+
+    private static SortedMap<String, Properties> readProperties(File directory) {
+        SortedMap<String, Properties> result = new TreeMap<>();
+        File[] descriptors = directory.listFiles((dir, name) -> name.endsWith(DESCRIPTOR_SUFFIX));
+        if (descriptors == null) {
+            return result;
+        }
+        Arrays.sort(descriptors);
+        for (File descriptor : descriptors) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(descriptor.toPath())) {
+                properties.load(in);
+            } catch (IOException ex) {
+                throw new GradleException("Failed to read the plugin descriptor " + descriptor, ex);
+            }
+            result.put(pluginId(descriptor.getName()), properties);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the descriptor with its compatibility lines replaced by the given states. The other lines are kept in
+     * their order, followed by a line for every known feature in the order of {@link CompatibilityFeature}, so the
+     * result only depends on the non-compatibility content and the states. Lines end with {@code \n}.
+     */
+    public static byte[] withFeatures(byte[] descriptor, FeatureStates states) {
+        StringBuilder result = new StringBuilder(descriptor.length + 160);
+        for (String line : new String(descriptor, StandardCharsets.ISO_8859_1).split("\r?\n")) {
+            if (!line.isEmpty() && !isFeatureLine(line)) {
+                result.append(line).append('\n');
+            }
+        }
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            result.append(feature.getDescriptorKey())
+                .append('=')
+                .append(states.get(feature).getProtocolValue())
+                .append('\n');
+        }
+        return result.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isFeatureLine(String line) {
+        String trimmed = line.trim();
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            String key = feature.getDescriptorKey();
+            if (trimmed.startsWith(key)
+                && (trimmed.length() == key.length() || "=: \t".indexOf(trimmed.charAt(key.length())) >= 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the plugin ID for the descriptor file name.
+     */
+    public static String pluginId(String descriptorFileName) {
+        return descriptorFileName.substring(0, descriptorFileName.length() - DESCRIPTOR_SUFFIX.length());
+    }
+}
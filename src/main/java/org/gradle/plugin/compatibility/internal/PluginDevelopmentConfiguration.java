@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.Project;
+import org.gradle.api.attributes.Usage;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.plugins.ExtensionAware;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Copy;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.plugin.compatibility.PluginCompatibilityExtension;
+import org.gradle.plugin.compatibility.internal.groovy.CompatibilityProjectExtension;
+import org.gradle.plugin.compatibility.internal.processor.CompatibilityAnnotationProcessor;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.plugin.devel.PluginDeclaration;
+import org.gradle.plugin.devel.tasks.GeneratePluginDescriptors;
+import org.gradle.util.GradleVersion;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Configures a project with the {@code java-gradle-plugin} for declaring compatibility, see {@link CompatibilityPlugin}.
+ * <p>
+ * Classes that only some builds need, like the registry of older Gradle versions and the descriptor generation, are only
+ * referenced from code paths that use them, so they aren't loaded otherwise. The opt-in verification tasks are
+ * registered by {@link CompatibilityVerificationPlugin}.
+ */
+final class PluginDevelopmentConfiguration {
+    private PluginDevelopmentConfiguration() {}
+
+    static void apply(Project project) {
+        // The constants are inlined, so checking doesn't load the report classes
+        boolean reportCosts = Boolean.parseBoolean(
+            project.getProviders().gradleProperty(ConfigurationCostReportService.ENABLED_PROPERTY).getOrNull()
+        );
+        long start = reportCosts ? System.nanoTime() : 0;
+        if (reportCosts) {
+            ConfigurationCostReportService.register(project, project.getRootProject().getLayout().getBuildDirectory());
+        }
+
+        PluginCompatibilityExtension projectExtension = createProjectExtension(project);
+
+        // The descriptors, the index and the variant attributes are computed by the same action
+        Map<GeneratePluginDescriptors, SerializeCompatibilityDataAction> actions = new IdentityHashMap<>();
+        configurePluginDescriptorsTask(project, projectExtension, actions, reportCosts);
+        configureIndex(project);
+        configureVariantAttributes(project, projectExtension, actions);
+
+        if (needsGroovySyntax(project)) {
+            CompatibilityProjectExtension.install(project);
+        }
+
+        project.getExtensions().configure(GradlePluginDevelopmentExtension.class, gradlePlugins -> {
+            gradlePlugins.getPlugins().configureEach(decl -> {
+                long declarationStart = reportCosts ? System.nanoTime() : 0;
+                CompatibilityStrategy strategy = CompatibilityStrategy.getInstance();
+                strategy.createExtension(decl, project);
+                if (reportCosts) {
+                    recordDeclaration(project, strategy, decl, declarationStart);
+                }
+            });
+        });
+
+        if (reportCosts) {
+            ConfigurationCosts.of(project).addElapsed(start);
+        }
+    }
+
+    /**
+     * Tells whether the project needs {@code compatibility(declaration) { ... }}, the Groovy syntax of Gradle before
+     * 8.14. Kotlin DSL build scripts use the extension function instead, and on Gradle 8.14 and later Groovy script
+     * plugins they apply can use the {@code compatibility} extension of the declarations, so the closure isn't installed
+     * for them.
+     */
+    private static boolean needsGroovySyntax(Project project) {
+        return !project.getBuildFile().getName().endsWith(".kts")
+            || GradleVersion.current().compareTo(CompatibilityStrategy.EXTENSION_AWARE_MIN_VERSION) < 0;
+    }
+
+    private static void recordDeclaration(
+        Project project,
+        CompatibilityStrategy strategy,
+        PluginDeclaration declaration,
+        long start
+    ) {
+        ConfigurationCosts costs = ConfigurationCosts.of(project);
+        costs.add(ConfigurationCosts.Counter.DECLARATIONS, 1);
+        if (declaration instanceof ExtensionAware) {
+            // The strategy created the extension
+            costs.add(ConfigurationCosts.Counter.EXTENSIONS_INSTANTIATED, 1);
+        }
+        strategy.recordCosts(declaration, costs);
+        costs.addElapsed(start);
+    }
+
+    private static PluginCompatibilityExtension createProjectExtension(Project project) {
+        PluginCompatibilityExtension extension =
+            project.getExtensions().create("pluginCompatibility", PluginCompatibilityExtension.class);
+        extension.getReadAnnotations().convention(false);
+        extension.getVariantAttributes().convention(true);
+
+        // Build-wide defaults come from Gradle properties, so they can be set once in the root gradle.properties
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            feature.getProperty(extension.getDefaults()).convention(
+                project.getProviders()
+                    .gradleProperty(PluginCompatibilityExtension.DEFAULTS_PROPERTY_PREFIX + feature.getPropertyName())
+                    .map(Boolean::parseBoolean)
+            );
+        }
+        return extension;
+    }
+
+    private static void configurePluginDescriptorsTask(
+        Project project,
+        PluginCompatibilityExtension projectExtension,
+        Map<GeneratePluginDescriptors, SerializeCompatibilityDataAction> actions,
+        boolean reportCosts
+    ) {
+        project.getTasks()
+            .withType(GeneratePluginDescriptors.class)
+            .configureEach(task -> {
+                long start = reportCosts ? System.nanoTime() : 0;
+                Provider<CompatibilityCatalogService> catalog = CompatibilityCatalogService.find(project.getGradle());
+                if (catalog != null) {
+                    task.usesService(catalog);
+                }
+
+                SerializeCompatibilityDataAction action = serializeAction(project, projectExtension, actions, task);
+
+                task.getInputs().property(
+                    "compatibilityFeatures",
+                    action.getSerializableCompatibilityData()
+                );
+
+                task.getInputs()
+                    .files(action.getAnnotationData())
+                    .withPropertyName("compatibilityAnnotations")
+                    .withPathSensitivity(PathSensitivity.RELATIVE);
+
+                task.getOutputs()
+                    .dir(action.getIndexDirectory())
+                    .withPropertyName("compatibilityIndex");
+
+                task.doLast("addSupportedFeatureFlags", action);
+
+                if (reportCosts) {
+                    recordDescriptorSize(project, task, start);
+                }
+            });
+    }
+
+    private static void recordDescriptorSize(Project project, GeneratePluginDescriptors task, long start) {
+        Provider<ConfigurationCostReportService> service = ConfigurationCosts.service(project);
+        task.usesService(service);
+        task.doLast(
+            "recordConfigurationCosts",
+            new ConfigurationCosts.DescriptorSizeAction(service, project.getPath(), task.getOutputDirectory())
+        );
+        ConfigurationCosts.of(project).addElapsed(start);
+    }
+
+    private static SerializeCompatibilityDataAction serializeAction(
+        Project project,
+        PluginCompatibilityExtension projectExtension,
+        Map<GeneratePluginDescriptors, SerializeCompatibilityDataAction> actions,
+        GeneratePluginDescriptors task
+    ) {
+        return actions.computeIfAbsent(task, key -> createSerializeAction(project, projectExtension, key));
+    }
+
+    private static SerializeCompatibilityDataAction createSerializeAction(
+        Project project,
+        PluginCompatibilityExtension projectExtension,
+        GeneratePluginDescriptors task
+    ) {
+        Provider<CompatibilityCatalogService> catalog = CompatibilityCatalogService.find(project.getGradle());
+        if (catalog == null) {
+            catalog = project.getProviders().provider(() -> null);
+        }
+        return project.getObjects().newInstance(
+            SerializeCompatibilityDataAction.class,
+            project,
+            task,
+            projectExtension.getDefaults(),
+            projectExtension.getRules(),
+            catalog,
+            annotationData(project, projectExtension),
+            indexDirectory(project, task.getName())
+        );
+    }
+
+    /**
+     * Publishes the compatibility of the plugins in the jar as attributes of its variants, so it ends up in the Gradle
+     * Module Metadata. Attributes must be known at configuration time, so the compatibility declared with annotations
+     * isn't included, and values derived from task outputs fail the build unless the attributes are disabled.
+     */
+    private static void configureVariantAttributes(
+        Project project,
+        PluginCompatibilityExtension projectExtension,
+        Map<GeneratePluginDescriptors, SerializeCompatibilityDataAction> actions
+    ) {
+        project.getPluginManager().withPlugin("maven-publish", plugin -> {
+            TaskProvider<GeneratePluginDescriptors> pluginDescriptors = project.getTasks().named(
+                CompatibilityPlugin.PLUGIN_DESCRIPTORS_TASK_NAME,
+                GeneratePluginDescriptors.class
+            );
+            Provider<Map<String, Integer>> compatibility = pluginDescriptors.flatMap(
+                task -> serializeAction(project, projectExtension, actions, task).getSerializableCompatibilityData()
+            );
+            CompatibilityVariantAttributes.configure(project, compatibility, projectExtension.getVariantAttributes());
+        });
+    }
+
+    /**
+     * Packages the compatibility index next to the plugin descriptors, the same way the {@code java-gradle-plugin}
+     * packages the descriptors. The index is also published to other projects, for the aggregated report of
+     * {@link CompatibilityReportPlugin}.
+     * <p>
+     * The index is written by the action that adds the compatibility to the descriptors, so there's no task class to
+     * load when the plugin is applied.
+     */
+    private static void configureIndex(Project project) {
+        TaskProvider<GeneratePluginDescriptors> pluginDescriptors = project.getTasks().named(
+            CompatibilityPlugin.PLUGIN_DESCRIPTORS_TASK_NAME,
+            GeneratePluginDescriptors.class
+        );
+        Provider<Directory> index = indexDirectory(project, pluginDescriptors.getName());
+        project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME, Copy.class).configure(task ->
+            task.from(
+                project.files(index).builtBy(pluginDescriptors),
+                spec -> spec.into(SerializeCompatibilityDataAction.INDEX_DIRECTORY)
+            )
+        );
+        project.getConfigurations().register(CompatibilityPlugin.INDEX_ELEMENTS_CONFIGURATION_NAME, configuration -> {
+            configuration.setDescription("The compatibility index of the plugins, for aggregated reports.");
+            configuration.setCanBeConsumed(true);
+            configuration.setCanBeResolved(false);
+            configuration.getAttributes().attribute(
+                Usage.USAGE_ATTRIBUTE,
+                project.getObjects().named(Usage.class, CompatibilityPlugin.INDEX_USAGE)
+            );
+            configuration.getOutgoing().artifact(
+                index.map(directory -> directory.file(SerializeCompatibilityDataAction.INDEX_FILE_NAME)),
+                artifact -> {
+                    artifact.setType(CompatibilityPlugin.INDEX_USAGE);
+                    artifact.builtBy(pluginDescriptors);
+                }
+            );
+        });
+    }
+
+    private static Provider<Directory> indexDirectory(Project project, String taskName) {
+        return project.getLayout().getBuildDirectory().dir(taskName + "CompatibilityIndex");
+    }
+
+    /**
+     * Returns the resources generated by the annotation processor, if reading them is enabled. Only the generated
+     * resource is returned, so the descriptors aren't regenerated when unrelated classes change.
+     */
+    private static FileCollection annotationData(Project project, PluginCompatibilityExtension projectExtension) {
+        GradlePluginDevelopmentExtension gradlePlugins =
+            project.getExtensions().getByType(GradlePluginDevelopmentExtension.class);
+        return project.files(project.provider(() -> {
+            if (!projectExtension.getReadAnnotations().get()) {
+                return project.files();
+            }
+            return gradlePlugins.getPluginSourceSet().getOutput().getClassesDirs().getAsFileTree().matching(
+                pattern -> pattern.include(CompatibilityAnnotationProcessor.RESOURCE_PATH)
+            );
+        }));
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the compatibility declared by the plugins in a jar.
+ * <p>
+ * Only the central directory and the index or the plugin descriptor entries are read, so the cost doesn't depend on the
+ * size of the rest of the jar. This class doesn't use the Gradle API, so it can be used outside a build.
+ */
+public final class PluginJarDescriptors {
+    /**
+     * The directory of the plugin descriptors in a jar.
+     */
+    public static final String DESCRIPTOR_DIRECTORY = "META-INF/gradle-plugins/";
+
+    /**
+     * The protocol names of the features known to this version of the plugin.
+     */
+    public static final List<String> KNOWN_FEATURES = Collections.unmodifiableList(Arrays.asList(
+        CompatibilityDeclarationProtocol.FEATURE_CONFIGURATION_CACHE,
+        CompatibilityDeclarationProtocol.FEATURE_ISOLATED_PROJECTS,
+        CompatibilityDeclarationProtocol.FEATURE_PARALLEL_CONFIGURATION
+    ));
+
+    private static final String DESCRIPTOR_SUFFIX = ".properties";
+
+    private PluginJarDescriptors() {}
+
+    /**
+     * Tells whether the file is a jar, going by its name.
+     */
+    public static boolean isJar(Path file) {
+        return file.getFileName().toString().endsWith(".jar") && Files.isRegularFile(file);
+    }
+
+    /**
+     * Opens the jar and returns the declared compatibility of each of its plugins, see {@link #read(ZipFile)}.
+     */
+    public static SortedMap<String, SortedMap<String, String>> read(Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            return read(zip);
+        }
+    }
+
+    /**
+     * Returns the declared compatibility of each plugin in the jar, keyed by plugin ID. The values map the protocol
+     * feature names, e.g. {@value CompatibilityDeclarationProtocol#FEATURE_CONFIGURATION_CACHE}, to the declared
+     * values. Features that aren't in the descriptor are absent. Both maps are sorted.
+     * <p>
+     * The {@link CompatibilityDeclarationProtocol#INDEX_RESOURCE index} is read if the jar has one, otherwise every
+     * descriptor is read.
+     */
+    public static SortedMap<String, SortedMap<String, String>> read(ZipFile jar) throws IOException {
+        ZipEntry index = jar.getEntry(CompatibilityDeclarationProtocol.INDEX_RESOURCE);
+        if (index != null) {
+            try (InputStream in = jar.getInputStream(index)) {
+                return readIndex(in);
+            }
+        }
+        SortedMap<String, SortedMap<String, String>> result = new TreeMap<>();
+        Enumeration<? extends ZipEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (entry.isDirectory()
+                || !name.startsWith(DESCRIPTOR_DIRECTORY)
+                || !name.endsWith(DESCRIPTOR_SUFFIX)
+                || name.indexOf('/', DESCRIPTOR_DIRECTORY.length()) >= 0) {
+                continue;
+            }
+            String pluginId = name.substring(DESCRIPTOR_DIRECTORY.length(), name.length() - DESCRIPTOR_SUFFIX.length());
+            try (InputStream in = jar.getInputStream(entry)) {
+                result.put(pluginId, features(in));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the declared features of a single descriptor, keyed by protocol feature name.
+     */
+    public static SortedMap<String, String> features(InputStream descriptor) throws IOException {
+        Properties properties = new Properties();
+        properties.load(descriptor);
+        SortedMap<String, String> result = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(CompatibilityDeclarationProtocol.SUPPORT_FLAGS_PREFIX)) {
+                result.put(
+                    key.substring(CompatibilityDeclarationProtocol.SUPPORT_FLAGS_PREFIX.length()),
+                    properties.getProperty(key)
+                );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses the {@link CompatibilityDeclarationProtocol#INDEX_RESOURCE index} of a jar. The result has the same shape
+     * as {@link #read(ZipFile)}.
+     */
+    public static SortedMap<String, SortedMap<String, String>> readIndex(InputStream index) throws IOException {
+        Properties properties = new Properties();
+        properties.load(index);
+        SortedMap<String, SortedMap<String, String>> result = new TreeMap<>();
+        for (String pluginId : properties.stringPropertyNames()) {
+            SortedMap<String, String> features = new TreeMap<>();
+            for (String pair : properties.getProperty(pluginId).split(",")) {
+                int separator = pair.indexOf(':');
+                if (separator > 0) {
+                    features.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+                }
+            }
+            result.put(pluginId, features);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the {@link CompatibilityDeclarationProtocol#INDEX_RESOURCE index} for the plugins. The lines are written in
+     * the iteration order of the maps.
+     */
+    public static void writeIndex(Map<String, ? extends Map<String, String>> plugins, Writer writer) throws IOException {
+        for (Map.Entry<String, ? extends Map<String, String>> plugin : plugins.entrySet()) {
+            writer.write(plugin.getKey());
+            writer.write('=');
+            boolean first = true;
+            for (Map.Entry<String, String> feature : plugin.getValue().entrySet()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writer.write(feature.getKey());
+                writer.write(':');
+                writer.write(feature.getValue());
+            }
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Returns the features with the {@link #KNOWN_FEATURES known ones} that are missing added as
+     * {@value CompatibilityDeclarationProtocol#UNDECLARED}.
+     */
+    public static SortedMap<String, String> withKnownFeatures(SortedMap<String, String> declared) {
+        SortedMap<String, String> result = new TreeMap<>(declared);
+        for (String feature : KNOWN_FEATURES) {
+            result.putIfAbsent(feature, CompatibilityDeclarationProtocol.UNDECLARED);
+        }
+        return result;
+    }
+}
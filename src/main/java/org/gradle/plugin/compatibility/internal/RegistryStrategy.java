@@ -27,6 +27,7 @@ import org.gradle.plugin.devel.PluginDeclaration;
  * Uses a registry-based approach to store and retrieve compatibility configuration.
  */
 class RegistryStrategy implements CompatibilityStrategy {
+    static final RegistryStrategy INSTANCE = new RegistryStrategy();
 
     @Override
     public void createExtension(PluginDeclaration declaration, Project project) {
@@ -36,17 +37,39 @@ class RegistryStrategy implements CompatibilityStrategy {
 
     @Override
     public CompatibleFeatures extractFeatures(PluginDeclaration declaration, Project project) {
-        CompatibilityExtension extension = project.getObjects().newInstance(CompatibilityExtension.class);
-
-        CompatibilityRegistry
-            .getForDeclaration(declaration)
-            .forEach(action -> action.execute(extension));
+        // The constant is inlined, so checking whether the cost report is enabled doesn't load its classes
+        if (project.getGradle().getSharedServices().getRegistrations()
+            .findByName(ConfigurationCostReportService.NAME) != null) {
+            return resolveMeasured(declaration, project);
+        }
+        return CompatibilityRegistry.resolve(
+            declaration,
+            () -> project.getObjects().newInstance(CompatibilityExtension.class)
+        );
+    }
 
-        return extension.getFeatures();
+    private static CompatibleFeatures resolveMeasured(PluginDeclaration declaration, Project project) {
+        ConfigurationCosts costs = ConfigurationCosts.of(project);
+        long start = System.nanoTime();
+        CompatibleFeatures features = CompatibilityRegistry.resolve(declaration, () -> {
+            // Only called by the first read, which replays the stored actions
+            int actions = CompatibilityRegistry.getActionCount(declaration);
+            costs.add(ConfigurationCosts.Counter.ACTIONS_STORED, actions);
+            costs.add(ConfigurationCosts.Counter.ACTIONS_REPLAYED, actions);
+            costs.add(ConfigurationCosts.Counter.EXTENSIONS_INSTANTIATED, 1);
+            return project.getObjects().newInstance(CompatibilityExtension.class);
+        });
+        costs.addElapsed(start);
+        return features;
     }
 
     @Override
     public void configure(PluginDeclaration declaration, Action<? super CompatibilityExtension> configuration) {
         CompatibilityRegistry.store(declaration, configuration);
     }
+
+    @Override
+    public void recordCosts(PluginDeclaration declaration, ConfigurationCosts costs) {
+        // The stored actions are counted when they're replayed, where the project is known
+    }
 }
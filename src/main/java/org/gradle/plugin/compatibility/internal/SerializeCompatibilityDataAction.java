@@ -21,72 +21,197 @@ import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.file.Directory;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
 import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
 import org.gradle.plugin.compatibility.CompatibleFeatures;
 import org.gradle.plugin.devel.PluginDeclaration;
 import org.gradle.plugin.devel.tasks.GeneratePluginDescriptors;
 
 import javax.inject.Inject;
-import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
+/**
+ * Adds the compatibility to the generated plugin descriptors, and writes the
+ * {@link CompatibilityDeclarationProtocol#INDEX_RESOURCE compatibility index} of the jar. The index is built from the
+ * final descriptors, so it includes the compatibility from every source.
+ */
 public abstract class SerializeCompatibilityDataAction implements Action<Task> {
-    private final ObjectFactory objectFactory;
+    // The parts of CompatibilityDeclarationProtocol.INDEX_RESOURCE. They are constants, so the plugin can reference
+    // them without loading this class.
+    static final String INDEX_DIRECTORY = "META-INF/gradle-plugin-compatibility";
+    static final String INDEX_FILE_NAME = "index.properties";
+
     private final Provider<Directory> outputDirectory;
-    private final Provider<Map<String, CompatibleFeatures>> compatibilityData;
+    private final Provider<Directory> indexDirectory;
+    private final MapProperty<String, Integer> declaredData;
+    private final MapProperty<String, Integer> fallbackData;
+    private final MapProperty<String, Integer> compatibilityData;
+    private final FileCollection annotationData;
+    private final Provider<Map<String, String>> implementationClasses;
 
     @SuppressWarnings("InjectOnConstructorOfAbstractClass")
     @Inject
-    public SerializeCompatibilityDataAction(ObjectFactory objectFactory, GeneratePluginDescriptors task) {
-        this.objectFactory = objectFactory;
-        Project project = task.getProject();
-        CompatibilityStrategy strategy = CompatibilityStrategy.getInstance();
+    public SerializeCompatibilityDataAction(
+        ObjectFactory objectFactory,
+        ProviderFactory providers,
+        Project project,
+        GeneratePluginDescriptors task,
+        CompatibleFeatures defaults,
+        Map<String, CompatibleFeatures> rules,
+        Provider<CompatibilityCatalogService> catalog,
+        FileCollection annotationData,
+        Provider<Directory> indexDirectory
+    ) {
+        this.annotationData = annotationData;
+        this.indexDirectory = indexDirectory;
         outputDirectory = task.getOutputDirectory();
-        compatibilityData = project.provider(() ->
-            task.getDeclarations().get().stream()
-                .collect(
-                    Collectors.toMap(
-                        PluginDeclaration::getId,
-                        declaration -> strategy.extractFeatures(declaration, project)
-                    )
-                )
-        );
+        // The catalog, the rules and the defaults are shared by all declarations, so only build their provider chain
+        // once, and only compile the rules when the first declaration reads it
+        Property<Fallbacks> fallbacks = objectFactory.property(Fallbacks.class);
+        fallbacks.set(createFallbacks(
+            objectFactory,
+            providers,
+            catalog.map(CompatibilityCatalogService::getEntries).orElse(Collections.emptyMap()),
+            rules,
+            defaults
+        ));
+        fallbacks.finalizeValueOnRead();
+        CompatibilityStrategy strategy = CompatibilityStrategy.getInstance();
+        // Sorted, so the task inputs and the generated files don't depend on the declaration order
+        Provider<Map<String, CompatibleFeatures>> declared = project.provider(() -> {
+            Map<String, CompatibleFeatures> result = new TreeMap<>();
+            for (PluginDeclaration declaration : task.getDeclarations().get()) {
+                if (result.put(declaration.getId(), strategy.extractFeatures(declaration, project)) != null) {
+                    throw new IllegalStateException("Duplicate plugin ID " + declaration.getId());
+                }
+            }
+            return result;
+        });
+        // Only the packed states are kept once the value is read: the declarations and their provider chains are not
+        // retained by the action, and don't end up in the configuration cache unless a value comes from a task output.
+        declaredData = objectFactory.mapProperty(String.class, Integer.class);
+        declaredData.set(declared.flatMap(data -> {
+            MapProperty<String, Integer> result = objectFactory.mapProperty(String.class, Integer.class);
+            data.forEach((id, features) -> result.put(id, compatibilityAsPackedStates(providers, features)));
+            return result;
+        }));
+        declaredData.finalizeValueOnRead();
+        // The declared states and the fallbacks are kept apart, so the annotations can rank between them. Zip rather
+        // than flat map the fallbacks, so the tasks producing their values are known without querying them.
+        fallbackData = objectFactory.mapProperty(String.class, Integer.class);
+        fallbackData.set(declaredData.zip(fallbacks, (data, fallback) -> {
+            Map<String, Integer> result = new TreeMap<>();
+            data.keySet().forEach(id -> result.put(id, fallback.resolve(id, FeatureStates.NONE.toPacked())));
+            return result;
+        }));
+        fallbackData.finalizeValueOnRead();
+        compatibilityData = objectFactory.mapProperty(String.class, Integer.class);
+        compatibilityData.set(declaredData.zip(fallbackData, (data, fallback) -> {
+            Map<String, Integer> result = new TreeMap<>();
+            data.forEach((id, states) -> result.put(id, resolve(states, fallback.get(id))));
+            return result;
+        }));
+        compatibilityData.finalizeValueOnRead();
+        implementationClasses = project.provider(() -> {
+            Map<String, String> result = new HashMap<>();
+            for (PluginDeclaration declaration : task.getDeclarations().get()) {
+                String implementationClass = declaration.getImplementationClass();
+                if (implementationClass != null) {
+                    result.put(declaration.getId(), implementationClass);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns the resources generated by the compatibility annotation processor. Empty if reading annotations is
+     * disabled.
+     */
+    public FileCollection getAnnotationData() {
+        return annotationData;
+    }
+
+    /**
+     * Returns the directory the index is written to. Its content is packaged into {@value #INDEX_DIRECTORY}.
+     */
+    public Provider<Directory> getIndexDirectory() {
+        return indexDirectory;
     }
 
     /**
      * Returns a provider that resolves compatibility data to a serializable format for task inputs.
      * This is necessary because Property&lt;Boolean&gt; values (especially nulls) cannot be reliably
      * serialized by Gradle's task input tracking in older Gradle versions.
+     * <p>
+     * The values are {@link FeatureStates} in their packed form. Features not declared by the plugin declaration take
+     * their values from the build-wide catalog, if any, then from the matching rules, and then from the project
+     * defaults. Annotations aren't included, as they're only read when the task runs, where they rank between the
+     * declaration and the catalog.
+     * <p>
+     * The value is resolved once, on first read, and the states come from the {@link FeatureStates} interning table,
+     * so declarations with the same configuration share the retained value.
+     * <p>
+     * Values derived from task outputs carry their producer tasks, so the tasks run before the plugin descriptors are
+     * generated, and their results become inputs of the generation.
      */
-    public Provider<Map<String, Map<String, String>>> getSerializableCompatibilityData() {
-        return compatibilityData.flatMap(data -> {
-            MapProperty<String, Map<String, String>> result = uncheckedCast(
-                objectFactory.mapProperty(String.class, Map.class)
-            );
-            data.forEach((id, features) -> result.put(id, compatibilityAsMap(features)));
-            return result;
-        });
+    public Provider<Map<String, Integer>> getSerializableCompatibilityData() {
+        return compatibilityData;
     }
 
-    @SuppressWarnings({"TypeParameterUnusedInFormals", "unchecked"})
-    private static <T, U> T uncheckedCast(U object) {
-        return (T) object;
+    private static Provider<Fallbacks> createFallbacks(
+        ObjectFactory objectFactory,
+        ProviderFactory providers,
+        Provider<Map<String, Integer>> catalogEntries,
+        Map<String, CompatibleFeatures> rules,
+        CompatibleFeatures defaults
+    ) {
+        // Rules can be added after the action is created, so read them lazily
+        Provider<CompatibilityRules> compiledRules = providers.provider(() -> rules)
+            .flatMap(current -> rulesAsPackedStates(objectFactory, providers, current))
+            .zip(compatibilityAsPackedStates(providers, defaults), CompatibilityRules::compile);
+        return catalogEntries.zip(compiledRules, Fallbacks::new);
     }
 
-    private static Provider<Map<String, String>> compatibilityAsMap(CompatibleFeatures features) {
-        return toSupportLevel(features.getConfigurationCache()).map(
-            configurationCache -> Collections.singletonMap("configurationCache", configurationCache)
-        );
+    private static Provider<Map<String, Integer>> rulesAsPackedStates(
+        ObjectFactory objectFactory,
+        ProviderFactory providers,
+        Map<String, CompatibleFeatures> rules
+    ) {
+        MapProperty<String, Integer> result = objectFactory.mapProperty(String.class, Integer.class);
+        rules.forEach((pattern, features) -> result.put(pattern, compatibilityAsPackedStates(providers, features)));
+        return result;
+    }
+
+    private static Provider<Integer> compatibilityAsPackedStates(ProviderFactory providers, CompatibleFeatures features) {
+        Provider<Integer> result = providers.provider(FeatureStates.NONE::toPacked);
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            result = result.zip(toPackedState(feature, features), (a, b) -> a | b);
+        }
+        return result;
+    }
+
+    private static Provider<Integer> toPackedState(CompatibilityFeature feature, CompatibleFeatures features) {
+        return feature.getProperty(features)
+            .map(value -> FeatureStates.NONE.with(feature, SupportLevel.of(value)).toPacked())
+            .orElse(FeatureStates.NONE.toPacked());
     }
 
     @Override
@@ -94,35 +219,91 @@ public abstract class SerializeCompatibilityDataAction implements Action<Task> {
         if (!(task instanceof GeneratePluginDescriptors)) {
             throw new GradleException("Task must be of type GeneratePluginDescriptors");
         }
-        compatibilityData.get().forEach(this::addSupportedFlagsToPluginDescriptors);
+        Map<String, Integer> annotatedClasses = readAnnotationData();
+        Map<String, String> implementationClasses = annotatedClasses.isEmpty()
+            ? Collections.emptyMap()
+            : this.implementationClasses.get();
+
+        Map<String, Integer> fallbacks = fallbackData.get();
+        SortedMap<String, SortedMap<String, String>> index = new TreeMap<>();
+        declaredData.get().forEach((pluginId, states) -> {
+            String implementationClass = implementationClasses.get(pluginId);
+            if (implementationClass != null) {
+                // Annotations fill in what the plugin declaration leaves undeclared, before the catalog, the rules and
+                // the defaults
+                Integer annotated = annotatedClasses.get(implementationClass);
+                if (annotated != null) {
+                    states = FeatureStates.orElse(states, annotated);
+                }
+            }
+            FeatureStates resolved = FeatureStates.fromPacked(resolve(states, fallbacks.get(pluginId)));
+            index.put(pluginId, addSupportedFlagsToPluginDescriptors(pluginId, resolved));
+        });
+        writeIndex(index);
+    }
+
+    private static Integer resolve(int states, int fallback) {
+        return FeatureStates.fromPacked(FeatureStates.orElse(states, fallback)).toPackedValue();
+    }
+
+    private Map<String, Integer> readAnnotationData() {
+        Map<String, Integer> result = new HashMap<>();
+        for (File file : annotationData.getFiles()) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1)) {
+                result.putAll(CompatibilityCatalog.parse(reader, file.getPath()));
+            } catch (IOException ex) {
+                throw new GradleException("Failed to read compatibility annotation data from " + file, ex);
+            }
+        }
+        return result;
     }
 
-    private void addSupportedFlagsToPluginDescriptors(String pluginId, CompatibleFeatures features) throws GradleException {
+    /**
+     * The resolved catalog entries, and the compiled rules and project defaults.
+     */
+    private static final class Fallbacks {
+        private final Map<String, Integer> catalog;
+        private final CompatibilityRules rules;
+
+        Fallbacks(Map<String, Integer> catalog, CompatibilityRules rules) {
+            this.catalog = catalog;
+            this.rules = rules;
+        }
+
+        Integer resolve(String pluginId, int declared) {
+            Integer catalogStates = catalog.get(pluginId);
+            int states = catalogStates != null ? FeatureStates.orElse(declared, catalogStates) : declared;
+            return FeatureStates.fromPacked(FeatureStates.orElse(states, rules.resolve(pluginId))).toPackedValue();
+        }
+    }
+
+    /**
+     * Returns the features of the written descriptor, keyed by protocol feature name.
+     */
+    private SortedMap<String, String> addSupportedFlagsToPluginDescriptors(
+        String pluginId,
+        FeatureStates states
+    ) throws GradleException {
         Path propertiesFile = outputDirectory.get().file(pluginId + ".properties").getAsFile().toPath();
-        try (BufferedWriter writer = Files.newBufferedWriter(propertiesFile, StandardOpenOption.APPEND)) {
-            writeFeatureSupportLevel(
-                writer,
-                CompatibilityDeclarationProtocol.FEATURE_CONFIGURATION_CACHE,
-                features.getConfigurationCache()
-            );
+        try {
+            // Rewrite rather than append, so the feature lines have a fixed position even if the file already has some
+            byte[] descriptor = PluginDescriptors.withFeatures(Files.readAllBytes(propertiesFile), states);
+            Files.write(propertiesFile, descriptor);
+            return PluginJarDescriptors.features(new ByteArrayInputStream(descriptor));
         } catch (IOException ex) {
             throw new GradleException("Failed to write supported features to " + propertiesFile, ex);
         }
     }
 
-    private static void writeFeatureSupportLevel(BufferedWriter writer, String name, Property<Boolean> support) throws IOException {
-        writer.write(CompatibilityDeclarationProtocol.SUPPORT_FLAGS_PREFIX);
-        writer.write(name);
-        writer.write("=");
-        writer.write(toSupportLevel(support).get());
-        writer.write('\n');
-    }
-
-    private static Provider<String> toSupportLevel(Property<Boolean> property) {
-        return property.map(
-                value -> value
-                    ? CompatibilityDeclarationProtocol.DECLARED_SUPPORTED
-                    : CompatibilityDeclarationProtocol.DECLARED_UNSUPPORTED)
-            .orElse(CompatibilityDeclarationProtocol.UNDECLARED);
+    private void writeIndex(SortedMap<String, SortedMap<String, String>> plugins) throws GradleException {
+        File index = indexDirectory.get().file(INDEX_FILE_NAME).getAsFile();
+        try {
+            Files.createDirectories(index.getParentFile().toPath());
+            try (Writer writer = Files.newBufferedWriter(index.toPath(), StandardCharsets.ISO_8859_1)) {
+                PluginJarDescriptors.writeIndex(plugins, writer);
+            }
+        } catch (IOException ex) {
+            throw new GradleException("Failed to write the compatibility index " + index, ex);
+        }
     }
 }
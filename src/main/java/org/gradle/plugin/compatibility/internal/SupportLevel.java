@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The declared support level of a single feature. The ordinal is the two-bit code used by {@link FeatureStates}, so the
+ * order of the constants must not change.
+ */
+public enum SupportLevel {
+    UNDECLARED(CompatibilityDeclarationProtocol.UNDECLARED),
+    DECLARED_SUPPORTED(CompatibilityDeclarationProtocol.DECLARED_SUPPORTED),
+    DECLARED_UNSUPPORTED(CompatibilityDeclarationProtocol.DECLARED_UNSUPPORTED);
+
+    private static final SupportLevel[] VALUES = values();
+
+    private final String protocolValue;
+
+    SupportLevel(String protocolValue) {
+        this.protocolValue = protocolValue;
+    }
+
+    /**
+     * Returns the value written to the plugin descriptor, e.g. {@code DECLARED_SUPPORTED}.
+     */
+    public String getProtocolValue() {
+        return protocolValue;
+    }
+
+    int code() {
+        return ordinal();
+    }
+
+    static SupportLevel fromCode(int code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Converts the value of a {@code Property<Boolean>} to the support level.
+     */
+    public static SupportLevel of(@Nullable Boolean supported) {
+        if (supported == null) {
+            return UNDECLARED;
+        }
+        return supported ? DECLARED_SUPPORTED : DECLARED_UNSUPPORTED;
+    }
+
+    /**
+     * Parses the value written to the plugin descriptor. Returns {@code null} for unknown values.
+     */
+    public static @Nullable SupportLevel fromProtocolValue(String value) {
+        for (SupportLevel level : VALUES) {
+            if (level.protocolValue.equals(value)) {
+                return level;
+            }
+        }
+        return null;
+    }
+}
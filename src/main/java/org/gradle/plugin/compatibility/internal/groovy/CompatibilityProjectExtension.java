@@ -17,6 +17,7 @@
 package org.gradle.plugin.compatibility.internal.groovy;
 
 import groovy.lang.Closure;
+import groovy.lang.MissingMethodException;
 import org.gradle.api.Project;
 import org.gradle.plugin.compatibility.internal.CompatibilityStrategy;
 import org.gradle.plugin.devel.PluginDeclaration;
@@ -26,7 +27,12 @@ import javax.inject.Inject;
 
 /**
  * An extension that provides {@code Project.compatibility(PluginDeclaration, Closure)} for Gradle before 8.14. The
- * {@link #doCall(PluginDeclaration, Closure)} is effectively the public API.
+ * {@link #configure(PluginDeclaration, Closure)} is effectively the public API.
+ * <p>
+ * Gradle calls closure-valued extra properties through a {@code doCall} method if the closure has one, which resolves
+ * the overload through the meta class on every call. This closure has no {@code doCall} methods, so Gradle calls
+ * {@link #call(Object...)} directly, which picks the overload with type checks. Large Groovy builds call this once per
+ * plugin declaration.
  */
 public abstract class CompatibilityProjectExtension extends Closure<@Nullable Void> {
     @Inject
@@ -39,17 +45,20 @@ public abstract class CompatibilityProjectExtension extends Closure<@Nullable Vo
         return (Project) super.getOwner();
     }
 
-    /**
-     * A helper that provides a nicer error message when the build logic uses modern syntax on the old Gradle version.
-     *
-     * @param ignored configuration closure
-     * @return nothing
-     * @throws UnsupportedOperationException always
-     */
-    @SuppressWarnings("unused") // Groovy magic
-    public @Nullable Void doCall(Closure<?> ignored) {
-        throw new UnsupportedOperationException("compatibility { ... } syntax is only supported since Gradle 8.14+. " +
-            "Pass PluginDeclaration explicitly, like plugins { create('foo') { compatibility(it) { ... } }");
+    @Override
+    public @Nullable Void call(Object... args) {
+        if (args.length == 2 && args[0] instanceof PluginDeclaration && args[1] instanceof Closure) {
+            configure((PluginDeclaration) args[0], (Closure<?>) args[1]);
+            return null;
+        }
+        if (args.length == 1 && args[0] instanceof Closure) {
+            // A helper that provides a nicer error message when the build logic uses modern syntax on the old Gradle
+            // version
+            throw new UnsupportedOperationException("compatibility { ... } syntax is only supported since "
+                + "Gradle 8.14+. Pass PluginDeclaration explicitly, like "
+                + "plugins { create('foo') { compatibility(it) { ... } }");
+        }
+        throw new MissingMethodException("compatibility", getOwner().getClass(), args);
     }
 
     /**
@@ -59,14 +68,25 @@ public abstract class CompatibilityProjectExtension extends Closure<@Nullable Vo
      *
      * @param declaration the declaration to configure
      * @param configuration the configuration closure
-     * @return {@code null}
      */
-    @SuppressWarnings("unused") // Groovy magic
-    public @Nullable Void doCall(PluginDeclaration declaration, Closure<?> configuration) {
-        Project owner = getOwner();
+    public void configure(PluginDeclaration declaration, Closure<?> configuration) {
         CompatibilityStrategy strategy = CompatibilityStrategy.getInstance();
-        strategy.configure(declaration, extension -> owner.configure(extension, configuration));
-        return null;
+        strategy.configure(declaration, extension -> {
+            // Project.configure goes through ConfigureUtil, which wraps the delegate for dynamic lookups. The
+            // extension needs none of that: a copy of the closure with it as the delegate resolves the same names,
+            // and falls back to the original owner for the rest of the script.
+            Closure<?> closure = configuration.rehydrate(
+                extension,
+                configuration.getOwner(),
+                configuration.getThisObject()
+            );
+            closure.setResolveStrategy(Closure.DELEGATE_FIRST);
+            if (closure.getMaximumNumberOfParameters() == 0) {
+                closure.call();
+            } else {
+                closure.call(extension);
+            }
+        });
     }
 
     /**
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.inject;
+
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.gradle.plugin.compatibility.internal.FeatureStates;
+import org.gradle.plugin.compatibility.internal.PluginDescriptors;
+import org.gradle.plugin.compatibility.internal.PluginJarDescriptors;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Writes compatibility declarations into the plugin descriptors of a prebuilt jar.
+ */
+public final class CompatibilityInjector {
+    private CompatibilityInjector() {}
+
+    /**
+     * Copies the jar, adding the compatibility to the descriptors of the plugins it's declared for. Features declared
+     * here replace the ones in the jar, the other features are kept. The index is regenerated if any descriptor
+     * changes. Signed jars are only copied if none of their descriptors change, as changing one would invalidate the
+     * signature.
+     *
+     * @param source the jar to read
+     * @param target the jar to write
+     * @param compatibility the packed {@link FeatureStates} by plugin ID
+     * @return the IDs of the plugins whose descriptors were changed
+     * @throws IllegalArgumentException if the jar is signed and a descriptor would change
+     */
+    public static List<String> inject(Path source, Path target, Map<String, Integer> compatibility) throws IOException {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        SortedMap<String, SortedMap<String, String>> index = new TreeMap<>();
+        List<String> injected = new ArrayList<>();
+        boolean signed = false;
+        try (ZipFile jar = new ZipFile(source.toFile())) {
+            Enumeration<? extends ZipEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                signed |= isSignatureFile(entry);
+                String pluginId = pluginId(entry);
+                if (pluginId == null) {
+                    continue;
+                }
+                byte[] descriptor;
+                try (InputStream in = jar.getInputStream(entry)) {
+                    descriptor = readAll(in);
+                }
+                Integer states = compatibility.get(pluginId);
+                if (states != null) {
+                    descriptor = stamp(descriptor, FeatureStates.fromPacked(states));
+                    contents.put(entry.getName(), descriptor);
+                    injected.add(pluginId);
+                }
+                index.put(pluginId, PluginJarDescriptors.features(new ByteArrayInputStream(descriptor)));
+            }
+        }
+
+        if (contents.isEmpty()) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            return injected;
+        }
+        if (signed) {
+            throw new IllegalArgumentException(source.getFileName() + " is signed, and adding the compatibility of "
+                + injected + " would invalidate its signature. Leave the jar out, or use an unsigned copy of it.");
+        }
+        ByteArrayOutputStream indexContent = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(indexContent, StandardCharsets.ISO_8859_1)) {
+            PluginJarDescriptors.writeIndex(index, writer);
+        }
+        contents.put(CompatibilityDeclarationProtocol.INDEX_RESOURCE, indexContent.toByteArray());
+        RawZipRewriter.rewrite(source, target, contents);
+        return injected;
+    }
+
+    /**
+     * Replaces the lines of the known features in the descriptor. The rest of the descriptor is kept as is.
+     */
+    static byte[] stamp(byte[] descriptor, FeatureStates declared) throws IOException {
+        Properties existing = new Properties();
+        existing.load(new ByteArrayInputStream(descriptor));
+        return PluginDescriptors.withFeatures(descriptor, declared.orElse(PluginDescriptors.parse(existing)));
+    }
+
+    /**
+     * Tells whether the entry is the signature file of a jar signer, like {@code META-INF/SIGNER.SF}.
+     */
+    private static boolean isSignatureFile(ZipEntry entry) {
+        String name = entry.getName().toUpperCase(Locale.ROOT);
+        return name.startsWith("META-INF/") && name.endsWith(".SF") && name.indexOf('/', "META-INF/".length()) < 0;
+    }
+
+    private static @Nullable String pluginId(ZipEntry entry) {
+        String name = entry.getName();
+        if (entry.isDirectory()
+            || !name.startsWith(PluginJarDescriptors.DESCRIPTOR_DIRECTORY)
+            || !name.endsWith(PluginDescriptors.DESCRIPTOR_SUFFIX)
+            || name.indexOf('/', PluginJarDescriptors.DESCRIPTOR_DIRECTORY.length()) >= 0) {
+            return null;
+        }
+        return PluginDescriptors.pluginId(name.substring(PluginJarDescriptors.DESCRIPTOR_DIRECTORY.length()));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            result.write(buffer, 0, read);
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.inject;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Injects the compatibility into a single jar, see {@link CompatibilityInjector}. The jars are independent, so the
+ * task submits one action per jar and the worker API runs them in parallel.
+ */
+public abstract class InjectCompatibilityAction implements WorkAction<InjectCompatibilityAction.Parameters> {
+    private static final Logger LOGGER = Logging.getLogger(InjectCompatibilityAction.class);
+
+    public interface Parameters extends WorkParameters {
+        RegularFileProperty getSourceJar();
+
+        RegularFileProperty getTargetJar();
+
+        /**
+         * The packed feature states by plugin ID.
+         */
+        MapProperty<String, Integer> getCompatibility();
+    }
+
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        File source = parameters.getSourceJar().get().getAsFile();
+        try {
+            List<String> plugins = CompatibilityInjector.inject(
+                source.toPath(),
+                parameters.getTargetJar().get().getAsFile().toPath(),
+                parameters.getCompatibility().get()
+            );
+            LOGGER.info("Injected the compatibility of {} into {}", plugins, source.getName());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidUserDataException(ex.getMessage(), ex);
+        } catch (IOException ex) {
+            throw new GradleException("Failed to inject the compatibility into " + source, ex);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.inject;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+/**
+ * Copies a zip file while replacing or adding a few entries. The other entries are copied byte for byte, including
+ * their compressed data, so the cost of a copy is close to the cost of copying the file.
+ * <p>
+ * Only what {@link java.util.zip.ZipFile} itself supports without Zip64 is handled: a single-disk archive with less
+ * than 65535 entries and less than 4 GB of data. Other archives are rejected with a {@link ZipException}.
+ */
+final class RawZipRewriter {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+    private static final int FLAG_UTF8 = 1 << 11;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int VERSION_DEFLATED = 20;
+    // 1980-02-01 00:00, the timestamp Gradle uses for reproducible archives
+    private static final int DOS_DATE_FOR_ADDED_ENTRIES = (2 << 5) | 1;
+
+    private RawZipRewriter() {}
+
+    /**
+     * Copies the source to the target. Entries whose names are keys of {@code contents} get the new content, and keys
+     * that aren't in the source are added after the existing entries.
+     */
+    static void rewrite(Path source, Path target, Map<String, byte[]> contents) throws IOException {
+        Map<String, byte[]> remaining = new LinkedHashMap<>(contents);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             CountingOutputStream out = new CountingOutputStream(
+                 new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024)
+             )) {
+            long endOffset = findEnd(in, source);
+            ByteBuffer end = ByteBuffer.allocate(END_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(in, end, endOffset);
+            if ((end.getShort(4) & 0xFFFF) != 0
+                || (end.getShort(8) & 0xFFFF) == 0xFFFF
+                || end.getInt(16) == 0xFFFFFFFF) {
+                throw new ZipException(source + " is a multi-disk or Zip64 archive, which isn't supported");
+            }
+            int entryCount = end.getShort(10) & 0xFFFF;
+            long centralDirectorySize = end.getInt(12) & 0xFFFFFFFFL;
+            long centralDirectoryOffset = end.getInt(16) & 0xFFFFFFFFL;
+            int commentLength = end.getShort(20) & 0xFFFF;
+            ByteBuffer comment = ByteBuffer.allocate(commentLength);
+            readFully(in, comment, endOffset + END_SIZE);
+
+            ByteBuffer centralDirectory = ByteBuffer.allocate(Math.toIntExact(centralDirectorySize))
+                .order(ByteOrder.LITTLE_ENDIAN);
+            readFully(in, centralDirectory, centralDirectoryOffset);
+
+            ByteArrayOutputStream newCentralDirectory = new ByteArrayOutputStream(Math.toIntExact(centralDirectorySize));
+            int position = 0;
+            for (int i = 0; i < entryCount; i++) {
+                if (centralDirectory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                    throw new ZipException("Invalid central directory entry in " + source);
+                }
+                int nameLength = centralDirectory.getShort(position + 28) & 0xFFFF;
+                int extraLength = centralDirectory.getShort(position + 30) & 0xFFFF;
+                int entryCommentLength = centralDirectory.getShort(position + 32) & 0xFFFF;
+                int headerLength = CENTRAL_HEADER_SIZE + nameLength + extraLength + entryCommentLength;
+                byte[] header = new byte[headerLength];
+                centralDirectory.position(position);
+                centralDirectory.get(header);
+                ByteBuffer headerBuffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+                String name = new String(header, CENTRAL_HEADER_SIZE, nameLength, StandardCharsets.UTF_8);
+                long localOffset = headerBuffer.getInt(42) & 0xFFFFFFFFL;
+                headerBuffer.putInt(42, Math.toIntExact(out.count));
+
+                byte[] replacement = remaining.remove(name);
+                if (replacement == null) {
+                    copyEntry(in, out, headerBuffer, localOffset, source);
+                } else {
+                    writeEntry(out, headerBuffer, nameLength, replacement);
+                }
+                newCentralDirectory.write(header);
+                position += headerLength;
+            }
+
+            for (Map.Entry<String, byte[]> added : remaining.entrySet()) {
+                byte[] name = added.getKey().getBytes(StandardCharsets.UTF_8);
+                ByteBuffer header = ByteBuffer.allocate(CENTRAL_HEADER_SIZE + name.length)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(0, CENTRAL_HEADER_SIGNATURE);
+                header.putShort(4, (short) VERSION_DEFLATED);
+                header.putShort(8, (short) FLAG_UTF8);
+                header.putShort(14, (short) DOS_DATE_FOR_ADDED_ENTRIES);
+                header.putShort(28, (short) name.length);
+                header.putInt(42, Math.toIntExact(out.count));
+                header.position(CENTRAL_HEADER_SIZE);
+                header.put(name);
+                writeEntry(out, header, name.length, added.getValue());
+                newCentralDirectory.write(header.array());
+                entryCount++;
+            }
+            if (entryCount >= 0xFFFF || out.count >= 0xFFFFFFFFL) {
+                throw new ZipException("Rewriting " + source + " requires Zip64, which isn't supported");
+            }
+
+            long newCentralDirectoryOffset = out.count;
+            newCentralDirectory.writeTo(out);
+            ByteBuffer newEnd = ByteBuffer.allocate(END_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            newEnd.putInt(0, END_SIGNATURE);
+            newEnd.putShort(8, (short) entryCount);
+            newEnd.putShort(10, (short) entryCount);
+            newEnd.putInt(12, newCentralDirectory.size());
+            newEnd.putInt(16, Math.toIntExact(newCentralDirectoryOffset));
+            newEnd.putShort(20, (short) commentLength);
+            out.write(newEnd.array());
+            out.write(comment.array());
+        }
+    }
+
+    /**
+     * Returns the offset of the end of central directory record. The record is followed by the archive comment, which
+     * ends the file.
+     */
+    private static long findEnd(FileChannel in, Path source) throws IOException {
+        long size = in.size();
+        int searched = (int) Math.min(size, END_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = ByteBuffer.allocate(searched).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(in, tail, size - searched);
+        for (int offset = searched - END_SIZE; offset >= 0; offset--) {
+            if (tail.getInt(offset) == END_SIGNATURE
+                && offset + END_SIZE + (tail.getShort(offset + 20) & 0xFFFF) == searched) {
+                return size - searched + offset;
+            }
+        }
+        throw new ZipException(source + " is not a zip file");
+    }
+
+    /**
+     * Copies the local header, the compressed data and the data descriptor of an entry without decompressing it.
+     */
+    private static void copyEntry(
+        FileChannel in,
+        CountingOutputStream out,
+        ByteBuffer centralHeader,
+        long localOffset,
+        Path source
+    ) throws IOException {
+        ByteBuffer localHeader = ByteBuffer.allocate(LOCAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(in, localHeader, localOffset);
+        if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header in " + source);
+        }
+        int flags = centralHeader.getShort(8) & 0xFFFF;
+        long compressedSize = centralHeader.getInt(20) & 0xFFFFFFFFL;
+        long length = LOCAL_HEADER_SIZE
+            + (localHeader.getShort(26) & 0xFFFF)
+            + (localHeader.getShort(28) & 0xFFFF)
+            + compressedSize;
+        if ((flags & FLAG_DATA_DESCRIPTOR) != 0) {
+            ByteBuffer signature = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(in, signature, localOffset + length);
+            // The data descriptor signature is optional
+            length += signature.getInt(0) == DATA_DESCRIPTOR_SIGNATURE ? 16 : 12;
+        }
+        out.transferFrom(in, localOffset, length);
+    }
+
+    /**
+     * Writes a deflated entry and updates the central header to match it. The name is taken from the central header.
+     */
+    private static void writeEntry(
+        CountingOutputStream out,
+        ByteBuffer centralHeader,
+        int nameLength,
+        byte[] content
+    ) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        byte[] compressed = deflate(content);
+        int flags = (centralHeader.getShort(8) & 0xFFFF) & ~FLAG_DATA_DESCRIPTOR;
+
+        centralHeader.putShort(6, (short) VERSION_DEFLATED);
+        centralHeader.putShort(8, (short) flags);
+        centralHeader.putShort(10, (short) METHOD_DEFLATED);
+        centralHeader.putInt(16, (int) crc.getValue());
+        centralHeader.putInt(20, compressed.length);
+        centralHeader.putInt(24, content.length);
+
+        ByteBuffer localHeader = ByteBuffer.allocate(LOCAL_HEADER_SIZE + nameLength).order(ByteOrder.LITTLE_ENDIAN);
+        localHeader.putInt(0, LOCAL_HEADER_SIGNATURE);
+        localHeader.putShort(4, (short) VERSION_DEFLATED);
+        localHeader.putShort(6, (short) flags);
+        localHeader.putShort(8, (short) METHOD_DEFLATED);
+        // Modification time and date
+        localHeader.putInt(10, centralHeader.getInt(12));
+        localHeader.putInt(14, (int) crc.getValue());
+        localHeader.putInt(18, compressed.length);
+        localHeader.putInt(22, content.length);
+        localHeader.putShort(26, (short) nameLength);
+        localHeader.position(LOCAL_HEADER_SIZE);
+        localHeader.put(centralHeader.array(), CENTRAL_HEADER_SIZE, nameLength);
+        out.write(localHeader.array());
+        out.write(compressed);
+    }
+
+    private static byte[] deflate(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream result = new ByteArrayOutputStream(content.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                result.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, current);
+            if (read < 0) {
+                throw new ZipException("Unexpected end of zip file");
+            }
+            current += read;
+        }
+        buffer.flip();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private final byte[] transferBuffer = new byte[64 * 1024];
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Copies a range of the channel to this stream.
+         */
+        void transferFrom(FileChannel in, long position, long length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(transferBuffer);
+            long remaining = length;
+            long current = position;
+            while (remaining > 0) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), remaining));
+                int read = in.read(buffer, current);
+                if (read < 0) {
+                    throw new ZipException("Unexpected end of zip file");
+                }
+                write(transferBuffer, 0, read);
+                current += read;
+                remaining -= read;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -14,21 +14,11 @@
  * limitations under the License.
  */
 
-package org.gradle.plugin.compatibility.internal;
-
-import org.gradle.util.GradleVersion;
 
 /**
- * Lazy holder for the singleton. Use {@link CompatibilityStrategy#getInstance()} to get the strategy.
+ * Injection of compatibility declarations into prebuilt plugin jars.
  */
-class CompatibilityStrategyHolder {
-    public static final CompatibilityStrategy INSTANCE = createStrategy();
+@NullMarked
+package org.gradle.plugin.compatibility.internal.inject;
 
-    private static CompatibilityStrategy createStrategy() {
-        if (GradleVersion.current().compareTo(CompatibilityStrategy.EXTENSION_AWARE_MIN_VERSION) >= 0) {
-            return new ExtensionAwareStrategy();
-        } else {
-            return new RegistryStrategy();
-        }
-    }
-}
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Collects the compatibility annotations of plugin classes into a single resource, which the plugin merges into the
+ * plugin descriptors.
+ * <p>
+ * The processor is registered as aggregating for Gradle's incremental compilation: it only reads the annotations it
+ * supports and produces a single resource, which is regenerated whenever an annotated class changes.
+ * <p>
+ * The resource uses the catalog format, with the binary class name in place of the plugin ID.
+ */
+public class CompatibilityAnnotationProcessor extends AbstractProcessor {
+    /**
+     * The location of the generated resource in the class output.
+     */
+    public static final String RESOURCE_PATH = "META-INF/gradle-plugin-compatibility/annotations.properties";
+
+    private static final String ANNOTATIONS_PACKAGE = "org.gradle.plugin.compatibility.annotations.";
+
+    // Annotation simple name -> feature property name. Can't use CompatibilityFeature, it depends on the Gradle API.
+    private static final Map<String, String> FEATURES;
+
+    static {
+        Map<String, String> features = new HashMap<>();
+        features.put(ANNOTATIONS_PACKAGE + "ConfigurationCacheCompatible", "configurationCache");
+        features.put(ANNOTATIONS_PACKAGE + "IsolatedProjectsCompatible", "isolatedProjects");
+        features.put(ANNOTATIONS_PACKAGE + "ParallelConfigurationCompatible", "parallelConfiguration");
+        FEATURES = Collections.unmodifiableMap(features);
+    }
+
+    // Sorted, so the resource content doesn't depend on the processing order
+    private final Map<String, Boolean> entries = new TreeMap<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return FEATURES.keySet();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            String feature = FEATURES.get(annotation.getQualifiedName().toString());
+            if (feature == null) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    String className = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+                    entries.put(className + "." + feature, isSupported(element, annotation));
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            writeResource();
+        }
+        return true;
+    }
+
+    private boolean isSupported(Element element, TypeElement annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : mirror.getElementValues().entrySet()) {
+                if (value.getKey().getSimpleName().contentEquals("value")) {
+                    return Boolean.TRUE.equals(value.getValue().getValue());
+                }
+            }
+        }
+        // The value isn't set explicitly, use the default
+        return true;
+    }
+
+    private void writeResource() {
+        try {
+            // Aggregating processors must not pass originating elements
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", RESOURCE_PATH);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.ISO_8859_1)) {
+                for (Map.Entry<String, Boolean> entry : entries.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('=');
+                    writer.write(entry.getValue().toString());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR,
+                "Failed to write " + RESOURCE_PATH + ": " + ex.getMessage()
+            );
+        }
+    }
+}
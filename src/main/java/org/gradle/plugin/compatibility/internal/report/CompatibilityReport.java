@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.report;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the compatibility of the plugins built in several projects into a single report, sorted by plugin ID.
+ * <p>
+ * The task only reads the compatibility indexes that the projects publish as artifacts, so it doesn't access the model
+ * of other projects, and works with Isolated Projects and parallel configuration.
+ */
+@CacheableTask
+public abstract class CompatibilityReport extends DefaultTask {
+    /**
+     * The compatibility indexes of the projects, as generated with the plugin descriptors.
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getIndexes();
+
+    /**
+     * The report as a JSON array with an object per plugin.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getJsonReport();
+
+    /**
+     * The report as an HTML table with a row per plugin.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getHtmlReport();
+
+    @TaskAction
+    void generate() {
+        List<Path> indexes = new ArrayList<>();
+        for (File index : getIndexes()) {
+            indexes.add(index.toPath());
+        }
+        Path json = getJsonReport().get().getAsFile().toPath();
+        Path html = getHtmlReport().get().getAsFile().toPath();
+        try (
+            Writer jsonWriter = Files.newBufferedWriter(json, StandardCharsets.UTF_8);
+            Writer htmlWriter = Files.newBufferedWriter(html, StandardCharsets.UTF_8)
+        ) {
+            CompatibilityReportWriter.write(indexes, jsonWriter, htmlWriter);
+        } catch (IOException ex) {
+            throw new GradleException("Failed to write the compatibility report to " + json + " and " + html, ex);
+        }
+        getLogger().lifecycle("Compatibility report written to {}", html.toUri());
+    }
+}
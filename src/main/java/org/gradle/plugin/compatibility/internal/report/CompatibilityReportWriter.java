@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.report;
+
+import org.gradle.api.GradleException;
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.gradle.plugin.compatibility.internal.PluginJarDescriptors;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Merges the compatibility indexes of several projects into a JSON and an HTML report, sorted by plugin ID.
+ * <p>
+ * Each index is sorted by plugin ID, so the indexes are merged line by line, and only the current line of each index is
+ * kept in memory. A plugin ID that appears in more than one index fails the merge, as the plugins would clash when
+ * published.
+ */
+final class CompatibilityReportWriter {
+    private CompatibilityReportWriter() {}
+
+    static void write(List<Path> indexes, Writer json, Writer html) throws IOException {
+        PriorityQueue<IndexCursor> cursors =
+            new PriorityQueue<>(Math.max(1, indexes.size()), Comparator.comparing(IndexCursor::getPluginId));
+        try {
+            for (Path index : indexes) {
+                IndexCursor cursor = new IndexCursor(index);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+
+            startJson(json);
+            startHtml(html);
+            boolean first = true;
+            @Nullable IndexCursor previous = null;
+            String previousPluginId = "";
+            while (!cursors.isEmpty()) {
+                IndexCursor cursor = cursors.remove();
+                String pluginId = cursor.getPluginId();
+                if (previous != null && pluginId.equals(previousPluginId)) {
+                    throw new GradleException("Plugin ID '" + pluginId + "' is declared in both " + previous.index
+                        + " and " + cursor.index);
+                }
+                SortedMap<String, String> features = PluginJarDescriptors.withKnownFeatures(cursor.getFeatures());
+                writeJson(json, pluginId, features, first);
+                writeHtml(html, pluginId, features);
+                first = false;
+                previous = cursor;
+                previousPluginId = pluginId;
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            json.write(first ? "]\n" : "\n]\n");
+            html.write("</tbody>\n</table>\n</body>\n</html>\n");
+        } finally {
+            for (IndexCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private static void startJson(Writer json) throws IOException {
+        json.write("[");
+    }
+
+    private static void writeJson(Writer json, String pluginId, Map<String, String> features, boolean first)
+        throws IOException {
+        json.write(first ? "\n" : ",\n");
+        json.write("{\"plugin\":" + quote(pluginId) + ",\"features\":{");
+        boolean firstFeature = true;
+        for (Map.Entry<String, String> feature : features.entrySet()) {
+            if (!firstFeature) {
+                json.write(",");
+            }
+            firstFeature = false;
+            json.write(quote(feature.getKey()) + ":" + quote(feature.getValue()));
+        }
+        json.write("}}");
+    }
+
+    private static void startHtml(Writer html) throws IOException {
+        html.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Plugin compatibility</title>\n");
+        html.write("<style>\n"
+            + "table { border-collapse: collapse; font-family: sans-serif; }\n"
+            + "th, td { border: 1px solid #ccc; padding: 4px 8px; text-align: left; }\n"
+            + ".DECLARED_SUPPORTED { background: #dfd; }\n"
+            + ".DECLARED_UNSUPPORTED { background: #fdd; }\n"
+            + "</style>\n</head>\n<body>\n<h1>Plugin compatibility</h1>\n<table>\n<thead>\n<tr><th>Plugin</th>");
+        for (String feature : PluginJarDescriptors.KNOWN_FEATURES) {
+            html.write("<th>" + escapeHtml(feature) + "</th>");
+        }
+        html.write("</tr>\n</thead>\n<tbody>\n");
+    }
+
+    private static void writeHtml(Writer html, String pluginId, Map<String, String> features) throws IOException {
+        html.write("<tr><td>" + escapeHtml(pluginId) + "</td>");
+        for (String feature : PluginJarDescriptors.KNOWN_FEATURES) {
+            String declared = features.get(feature);
+            String value = escapeHtml(declared == null ? CompatibilityDeclarationProtocol.UNDECLARED : declared);
+            html.write("<td class=\"" + value + "\">" + value + "</td>");
+        }
+        html.write("</tr>\n");
+    }
+
+    private static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    private static String escapeHtml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * The current line of an index, in the format written by {@link PluginJarDescriptors#writeIndex}.
+     */
+    private static final class IndexCursor implements Closeable {
+        private final Path index;
+        private final BufferedReader reader;
+        private String pluginId = "";
+        private String features = "";
+
+        IndexCursor(Path index) throws IOException {
+            this.index = index;
+            this.reader = Files.newBufferedReader(index, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Moves to the next plugin, and returns whether there is one.
+         */
+        boolean advance() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                line = line.trim();
+            } while (line.isEmpty() || line.startsWith("#"));
+
+            int separator = line.indexOf('=');
+            if (separator <= 0) {
+                throw new GradleException("Malformed line in the compatibility index " + index + ": " + line);
+            }
+            String nextPluginId = line.substring(0, separator).trim();
+            if (nextPluginId.compareTo(pluginId) <= 0) {
+                throw new GradleException("The compatibility index " + index + " isn't sorted by plugin ID");
+            }
+            pluginId = nextPluginId;
+            features = line.substring(separator + 1);
+            return true;
+        }
+
+        String getPluginId() {
+            return pluginId;
+        }
+
+        SortedMap<String, String> getFeatures() {
+            SortedMap<String, String> result = new TreeMap<>();
+            for (String pair : features.split(",")) {
+                int separator = pair.indexOf(':');
+                if (separator > 0) {
+                    result.put(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim());
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
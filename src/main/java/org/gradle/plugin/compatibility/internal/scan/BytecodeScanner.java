@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scans class files for API usage known to break the Configuration Cache.
+ * <p>
+ * Class files are scanned in parallel. The per-class {@link ClassFacts} are cached by the content hash of the class
+ * file, so only new or changed classes are parsed again. The analysis that needs the class hierarchy runs on the cached
+ * facts and is cheap.
+ */
+public final class BytecodeScanner {
+    // Bumped whenever the format of the cache or the extracted facts change
+    private static final int CACHE_VERSION = 2;
+
+    // Gradle task types whose names don't end with "Task"
+    private static final Set<String> KNOWN_GRADLE_TASKS = new HashSet<>(Arrays.asList(
+        "Copy", "Sync", "Delete", "Exec", "JavaExec", "Jar", "Zip", "Tar", "Test", "JavaCompile", "Javadoc"
+    ));
+
+    private final Map<String, ClassFacts> cache;
+    private Map<String, ClassFacts> lastScan = new HashMap<>();
+    private int scannedClasses;
+
+    private BytecodeScanner(Map<String, ClassFacts> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Creates a scanner backed by the cache file. A missing or unreadable cache is ignored.
+     */
+    public static BytecodeScanner withCache(Path cacheFile) {
+        return new BytecodeScanner(readCache(cacheFile));
+    }
+
+    /**
+     * Creates a scanner without a cache.
+     */
+    public static BytecodeScanner withoutCache() {
+        return new BytecodeScanner(new HashMap<>());
+    }
+
+    /**
+     * Scans the class files and returns the sorted findings. Only the classes used by this scan stay in the cache.
+     */
+    public Set<ScanFinding> scan(Collection<Path> classFiles) {
+        Map<String, ClassFacts> used = new ConcurrentHashMap<>();
+        List<ClassFacts> facts = new ArrayList<>(classFiles.size());
+        classFiles.parallelStream()
+            .map(classFile -> {
+                try {
+                    byte[] content = Files.readAllBytes(classFile);
+                    String hash = hash(content);
+                    ClassFacts result = cache.get(hash);
+                    if (result == null) {
+                        result = ClassFileReader.read(content);
+                        countScanned();
+                    }
+                    used.put(hash, result);
+                    return result;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Failed to scan " + classFile, ex);
+                }
+            })
+            .forEachOrdered(facts::add);
+
+        cache.clear();
+        cache.putAll(used);
+        lastScan = byName(facts);
+        return analyze(facts);
+    }
+
+    /**
+     * Returns the findings in the classes reachable from the given class, following the class references between the
+     * classes of the last scan. Classes loaded by name, like with reflection, aren't reachable.
+     *
+     * @param className the binary name of the class, like {@code com.example.MyPlugin}
+     */
+    public Set<ScanFinding> findingsReachableFrom(String className, Set<ScanFinding> findings) {
+        Set<String> reachable = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(className.replace('.', '/'));
+        while (!queue.isEmpty()) {
+            String current = queue.remove();
+            ClassFacts fact = lastScan.get(current);
+            if (fact != null && reachable.add(current)) {
+                queue.addAll(fact.getReferencedClasses());
+            }
+        }
+        Set<ScanFinding> result = new TreeSet<>();
+        for (ScanFinding finding : findings) {
+            if (reachable.contains(finding.getClassName().replace('.', '/'))) {
+                result.add(finding);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, ClassFacts> byName(List<ClassFacts> facts) {
+        Map<String, ClassFacts> result = new HashMap<>();
+        for (ClassFacts fact : facts) {
+            result.put(fact.getClassName(), fact);
+        }
+        return result;
+    }
+
+    private synchronized void countScanned() {
+        scannedClasses++;
+    }
+
+    /**
+     * Returns the number of classes parsed by the last scans, excluding the ones served from the cache.
+     */
+    public synchronized int getScannedClasses() {
+        return scannedClasses;
+    }
+
+    /**
+     * Writes the cache to the file.
+     */
+    public void writeCache(Path cacheFile) throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile)))) {
+            out.writeInt(CACHE_VERSION);
+            out.writeInt(cache.size());
+            for (Map.Entry<String, ClassFacts> entry : cache.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        }
+    }
+
+    private static Map<String, ClassFacts> readCache(Path cacheFile) {
+        Map<String, ClassFacts> result = new HashMap<>();
+        if (!Files.isRegularFile(cacheFile)) {
+            return result;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != CACHE_VERSION) {
+                return result;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                result.put(in.readUTF(), ClassFacts.readFrom(in));
+            }
+        } catch (IOException ex) {
+            // Truncated or corrupted cache, start over
+            result.clear();
+        }
+        return result;
+    }
+
+    static Set<ScanFinding> analyze(List<ClassFacts> facts) {
+        Map<String, ClassFacts> byName = byName(facts);
+
+        Set<ScanFinding> findings = new TreeSet<>();
+        for (ClassFacts fact : facts) {
+            String className = fact.getClassName().replace('/', '.');
+            for (String method : fact.getProjectAccessAtExecution()) {
+                findings.add(new ScanFinding(ScanFinding.Kind.PROJECT_ACCESS_AT_EXECUTION, className, method));
+            }
+            for (String method : fact.getBuildFinishedCalls()) {
+                findings.add(new ScanFinding(ScanFinding.Kind.BUILD_FINISHED_LISTENER, className, method));
+            }
+            if (!fact.getProjectFields().isEmpty() && isTask(fact, byName)) {
+                for (String field : fact.getProjectFields()) {
+                    findings.add(new ScanFinding(ScanFinding.Kind.PROJECT_FIELD_IN_TASK, className, field));
+                }
+            }
+        }
+        return findings;
+    }
+
+    private static boolean isTask(ClassFacts fact, Map<String, ClassFacts> byName) {
+        Set<String> seen = new HashSet<>();
+        @Nullable ClassFacts current = fact;
+        while (current != null && seen.add(current.getClassName())) {
+            if (current.hasTaskActions()) {
+                return true;
+            }
+            String superName = current.getSuperName();
+            if (superName == null) {
+                return false;
+            }
+            if (isGradleTaskType(superName)) {
+                return true;
+            }
+            current = byName.get(superName);
+        }
+        return false;
+    }
+
+    private static boolean isGradleTaskType(String internalName) {
+        if (!internalName.startsWith("org/gradle/")) {
+            return false;
+        }
+        String simpleName = internalName.substring(internalName.lastIndexOf('/') + 1);
+        return simpleName.endsWith("Task") || KNOWN_GRADLE_TASKS.contains(simpleName);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
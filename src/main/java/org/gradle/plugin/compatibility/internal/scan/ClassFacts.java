@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The facts extracted from a single class file that are relevant for the Configuration Cache compatibility.
+ * <p>
+ * The facts only depend on the content of the class file, so they can be cached by the content hash. Conclusions that
+ * need the class hierarchy, like whether a class is a task, are drawn later by {@link BytecodeScanner}.
+ */
+final class ClassFacts {
+    private final String className;
+    private final @Nullable String superName;
+    private final boolean hasTaskActions;
+    private final List<String> projectFields;
+    private final List<String> projectAccessAtExecution;
+    private final List<String> buildFinishedCalls;
+    private final List<String> referencedClasses;
+
+    ClassFacts(
+        String className,
+        @Nullable String superName,
+        boolean hasTaskActions,
+        List<String> projectFields,
+        List<String> projectAccessAtExecution,
+        List<String> buildFinishedCalls,
+        List<String> referencedClasses
+    ) {
+        this.className = className;
+        this.superName = superName;
+        this.hasTaskActions = hasTaskActions;
+        this.projectFields = Collections.unmodifiableList(projectFields);
+        this.projectAccessAtExecution = Collections.unmodifiableList(projectAccessAtExecution);
+        this.buildFinishedCalls = Collections.unmodifiableList(buildFinishedCalls);
+        this.referencedClasses = Collections.unmodifiableList(referencedClasses);
+    }
+
+    /**
+     * The internal name of the class, like {@code com/example/MyTask}.
+     */
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * The internal name of the superclass, {@code null} for {@code java/lang/Object}.
+     */
+    @Nullable
+    String getSuperName() {
+        return superName;
+    }
+
+    boolean hasTaskActions() {
+        return hasTaskActions;
+    }
+
+    /**
+     * Names of the fields of type {@code Project}.
+     */
+    List<String> getProjectFields() {
+        return projectFields;
+    }
+
+    /**
+     * Names of the task action methods that call {@code getProject()}.
+     */
+    List<String> getProjectAccessAtExecution() {
+        return projectAccessAtExecution;
+    }
+
+    /**
+     * Names of the methods that call {@code Gradle.buildFinished}.
+     */
+    List<String> getBuildFinishedCalls() {
+        return buildFinishedCalls;
+    }
+
+    /**
+     * Internal names of the other classes referenced by the class, like the classes it instantiates or calls.
+     */
+    List<String> getReferencedClasses() {
+        return referencedClasses;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(className);
+        out.writeUTF(superName != null ? superName : "");
+        out.writeBoolean(hasTaskActions);
+        writeList(out, projectFields);
+        writeList(out, projectAccessAtExecution);
+        writeList(out, buildFinishedCalls);
+        writeList(out, referencedClasses);
+    }
+
+    static ClassFacts readFrom(DataInput in) throws IOException {
+        String className = in.readUTF();
+        String superName = in.readUTF();
+        return new ClassFacts(
+            className,
+            superName.isEmpty() ? null : superName,
+            in.readBoolean(),
+            readList(in),
+            readList(in),
+            readList(in),
+            readList(in)
+        );
+    }
+
+    private static void writeList(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readList(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(in.readUTF());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A minimal class file reader that extracts {@link ClassFacts}.
+ * <p>
+ * Only the parts of the class file format needed for the analysis are interpreted: the constant pool, the field
+ * descriptors, the method annotations and the invoke instructions of method bodies. Everything else is skipped. The
+ * classes referenced by a class are the class entries of its constant pool.
+ * See <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html">JVMS chapter 4</a>.
+ */
+final class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String PROJECT_DESCRIPTOR = "Lorg/gradle/api/Project;";
+    private static final String GET_PROJECT_DESCRIPTOR = "()" + PROJECT_DESCRIPTOR;
+    private static final String TASK_ACTION_DESCRIPTOR = "Lorg/gradle/api/tasks/TaskAction;";
+    private static final String GRADLE_CLASS = "org/gradle/api/invocation/Gradle";
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final byte[] bytes;
+    private final DataInputStream in;
+
+    // Constant pool: strings for UTF8 entries, raw u2/u2 references for everything else we care about
+    private @Nullable String[] utf8;
+    private int[] refs;
+    private final List<Integer> classEntries = new ArrayList<>();
+
+    private ClassFileReader(byte[] bytes) {
+        this.bytes = bytes;
+        this.in = new DataInputStream(new ByteArrayInputStream(bytes));
+        this.utf8 = new String[0];
+        this.refs = new int[0];
+    }
+
+    /**
+     * Reads the facts from the content of a class file.
+     *
+     * @throws IOException if the content isn't a valid class file
+     */
+    static ClassFacts read(byte[] bytes) throws IOException {
+        return new ClassFileReader(bytes).read();
+    }
+
+    private ClassFacts read() throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.skipBytes(4); // minor and major version
+        readConstantPool();
+
+        in.skipBytes(2); // access flags
+        String className = className(in.readUnsignedShort());
+        int superIndex = in.readUnsignedShort();
+        String superName = superIndex == 0 ? null : className(superIndex);
+        in.skipBytes(2 * in.readUnsignedShort()); // interfaces
+
+        List<String> projectFields = new ArrayList<>();
+        int fieldCount = in.readUnsignedShort();
+        for (int i = 0; i < fieldCount; i++) {
+            in.skipBytes(2); // access flags
+            String name = utf8(in.readUnsignedShort());
+            String descriptor = utf8(in.readUnsignedShort());
+            if (PROJECT_DESCRIPTOR.equals(descriptor)) {
+                projectFields.add(name);
+            }
+            skipAttributes();
+        }
+
+        List<MethodInfo> methods = new ArrayList<>();
+        int methodCount = in.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            methods.add(readMethod());
+        }
+
+        // Lambdas in task actions run at execution time too. Javac names them lambda$<enclosing method>$<n>.
+        Set<String> executionTimeMethods = new HashSet<>();
+        for (MethodInfo method : methods) {
+            if (method.isTaskAction) {
+                executionTimeMethods.add(method.name);
+            }
+        }
+        List<String> projectAccess = new ArrayList<>();
+        List<String> buildFinished = new ArrayList<>();
+        for (MethodInfo method : methods) {
+            if (method.callsGetProject && isExecutionTime(method.name, executionTimeMethods)) {
+                projectAccess.add(method.name);
+            }
+            if (method.callsBuildFinished) {
+                buildFinished.add(method.name);
+            }
+        }
+
+        return new ClassFacts(
+            className,
+            superName,
+            !executionTimeMethods.isEmpty(),
+            projectFields,
+            projectAccess,
+            buildFinished,
+            referencedClasses(className)
+        );
+    }
+
+    private List<String> referencedClasses(String className) throws IOException {
+        Set<String> result = new TreeSet<>();
+        for (int index : classEntries) {
+            String name = className(index);
+            // Array classes are referenced by descriptor, like [Lcom/example/Foo;
+            int arrayStart = name.lastIndexOf('[');
+            if (arrayStart >= 0) {
+                if (name.charAt(arrayStart + 1) != 'L') {
+                    continue;
+                }
+                name = name.substring(arrayStart + 2, name.length() - 1);
+            }
+            result.add(name);
+        }
+        result.remove(className);
+        return new ArrayList<>(result);
+    }
+
+    private static boolean isExecutionTime(String methodName, Set<String> taskActions) {
+        if (taskActions.contains(methodName)) {
+            return true;
+        }
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', "lambda$".length());
+            return end > 0 && taskActions.contains(methodName.substring("lambda$".length(), end));
+        }
+        return false;
+    }
+
+    private void readConstantPool() throws IOException {
+        int count = in.readUnsignedShort();
+        utf8 = new String[count];
+        refs = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8[i] = in.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                    classEntries.add(i);
+                    refs[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    refs[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                    // Two u2 references packed into one int; the numeric constants are never dereferenced
+                    refs[i] = in.readInt();
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    in.skipBytes(8);
+                    i++; // Takes two slots
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    in.skipBytes(3);
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+    }
+
+    private MethodInfo readMethod() throws IOException {
+        in.skipBytes(2); // access flags
+        MethodInfo method = new MethodInfo(utf8(in.readUnsignedShort()));
+        in.skipBytes(2); // descriptor
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8(in.readUnsignedShort());
+            int length = in.readInt();
+            if ("RuntimeVisibleAnnotations".equals(name)) {
+                method.isTaskAction |= readAnnotations().contains(TASK_ACTION_DESCRIPTOR);
+            } else if ("Code".equals(name)) {
+                readCode(method);
+            } else {
+                in.skipBytes(length);
+            }
+        }
+        return method;
+    }
+
+    private Set<String> readAnnotations() throws IOException {
+        Set<String> result = new HashSet<>();
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            result.add(readAnnotation());
+        }
+        return result;
+    }
+
+    private String readAnnotation() throws IOException {
+        String type = utf8(in.readUnsignedShort());
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.skipBytes(2); // element name
+            skipElementValue();
+        }
+        return type;
+    }
+
+    private void skipElementValue() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                readAnnotation();
+                break;
+            case '[':
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                // Primitives, strings and classes are a single constant pool index
+                in.skipBytes(2);
+                break;
+        }
+    }
+
+    private void readCode(MethodInfo method) throws IOException {
+        in.skipBytes(4); // max stack and max locals
+        int codeLength = in.readInt();
+        int codeStart = bytes.length - in.available();
+        scanInstructions(method, codeStart, codeLength);
+        in.skipBytes(codeLength);
+        in.skipBytes(8 * in.readUnsignedShort()); // exception table
+        skipAttributes();
+    }
+
+    private void scanInstructions(MethodInfo method, int start, int length) throws IOException {
+        int pc = 0;
+        while (pc < length) {
+            int opcode = bytes[start + pc] & 0xFF;
+            switch (opcode) {
+                case 0xb6: // invokevirtual
+                case 0xb7: // invokespecial
+                case 0xb8: // invokestatic
+                case 0xb9: // invokeinterface
+                    checkInvocation(method, u2(start + pc + 1));
+                    pc += opcode == 0xb9 ? 5 : 3;
+                    break;
+                case 0xaa: { // tableswitch
+                    int p = pc + 1 + ((4 - (pc + 1) % 4) % 4);
+                    int low = s4(start + p + 4);
+                    int high = s4(start + p + 8);
+                    pc = p + 12 + 4 * (high - low + 1);
+                    break;
+                }
+                case 0xab: { // lookupswitch
+                    int p = pc + 1 + ((4 - (pc + 1) % 4) % 4);
+                    int pairs = s4(start + p + 4);
+                    pc = p + 8 + 8 * pairs;
+                    break;
+                }
+                case 0xc4: // wide
+                    pc += (bytes[start + pc + 1] & 0xFF) == 0x84 ? 6 : 4;
+                    break;
+                default:
+                    pc += instructionLength(opcode);
+                    break;
+            }
+        }
+    }
+
+    private static int instructionLength(int opcode) {
+        if (opcode == 0x10 || opcode == 0x12 || (opcode >= 0x15 && opcode <= 0x19)
+            || (opcode >= 0x36 && opcode <= 0x3a) || opcode == 0xa9 || opcode == 0xbc) {
+            // bipush, ldc, loads, stores, ret, newarray
+            return 2;
+        }
+        if (opcode == 0x11 || opcode == 0x13 || opcode == 0x14 || opcode == 0x84
+            || (opcode >= 0x99 && opcode <= 0xa8) || (opcode >= 0xb2 && opcode <= 0xb5)
+            || opcode == 0xbb || opcode == 0xbd || opcode == 0xc0 || opcode == 0xc1
+            || opcode == 0xc6 || opcode == 0xc7) {
+            // sipush, ldc_w, ldc2_w, iinc, branches, field access, new, anewarray, checkcast, instanceof, ifnull
+            return 3;
+        }
+        if (opcode == 0xc5) {
+            // multianewarray
+            return 4;
+        }
+        if (opcode == 0xba || opcode == 0xc8 || opcode == 0xc9) {
+            // invokedynamic, goto_w, jsr_w
+            return 5;
+        }
+        return 1;
+    }
+
+    private void checkInvocation(MethodInfo method, int methodRefIndex) throws IOException {
+        int methodRef = refs[methodRefIndex];
+        String owner = className(methodRef >>> 16);
+        int nameAndType = refs[methodRef & 0xFFFF];
+        String name = utf8(nameAndType >>> 16);
+        String descriptor = utf8(nameAndType & 0xFFFF);
+
+        if ("getProject".equals(name) && GET_PROJECT_DESCRIPTOR.equals(descriptor)) {
+            method.callsGetProject = true;
+        } else if ("buildFinished".equals(name) && GRADLE_CLASS.equals(owner)) {
+            method.callsBuildFinished = true;
+        }
+    }
+
+    private void skipAttributes() throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+
+    private String className(int index) throws IOException {
+        return utf8(refs[index]);
+    }
+
+    private String utf8(int index) throws IOException {
+        String value = index < utf8.length ? utf8[index] : null;
+        if (value == null) {
+            throw new IOException("Invalid constant pool reference " + index);
+        }
+        return value;
+    }
+
+    private int u2(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private int s4(int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+            | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static final class MethodInfo {
+        final String name;
+        boolean isTaskAction;
+        boolean callsGetProject;
+        boolean callsBuildFinished;
+
+        MethodInfo(String name) {
+            this.name = name;
+        }
+    }
+}
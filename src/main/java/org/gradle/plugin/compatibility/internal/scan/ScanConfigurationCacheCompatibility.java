@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+import org.gradle.plugin.compatibility.internal.CompatibilityFeature;
+import org.gradle.plugin.compatibility.internal.FeatureStates;
+import org.gradle.plugin.compatibility.internal.PluginDescriptors;
+import org.gradle.plugin.compatibility.internal.SupportLevel;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Scans the compiled plugin classes for code that is known to break the Configuration Cache and compares the result
+ * with the support declared in the plugin descriptors.
+ * <p>
+ * The findings of a plugin are the ones in the classes reachable from its implementation class through class
+ * references. Plugins that declare Configuration Cache support while they have findings are reported as violations,
+ * and fail the task if {@link #getVerify() verification} is enabled. Plugins that don't declare anything and have
+ * findings get a suggestion to declare no support. The scan is conservative: it only detects a few well-known
+ * patterns, so an empty report doesn't prove compatibility, and no support is suggested from it.
+ */
+@CacheableTask
+public abstract class ScanConfigurationCacheCompatibility extends DefaultTask {
+    /**
+     * The compiled plugin classes to scan.
+     */
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getClasses();
+
+    /**
+     * The directory with the generated plugin descriptors, including the declared compatibility.
+     */
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getPluginDescriptors();
+
+    /**
+     * Whether to fail if a plugin declares Configuration Cache support but the scan has findings.
+     */
+    @Input
+    @Option(option = "verify", description = "Fails if a plugin declaring Configuration Cache support has findings.")
+    public abstract Property<Boolean> getVerify();
+
+    /**
+     * The report with the findings and the per-plugin verdicts.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getReportFile();
+
+    /**
+     * The cache of the facts extracted from the classes, keyed by the class file content. Makes subsequent scans of
+     * mostly unchanged classes cheap.
+     */
+    @LocalState
+    public abstract RegularFileProperty getCacheFile();
+
+    @TaskAction
+    void scan() {
+        List<Path> classFiles = new ArrayList<>();
+        getClasses().getAsFileTree().matching(pattern -> pattern.include("**/*.class"))
+            .visit(details -> {
+                if (!details.isDirectory()) {
+                    classFiles.add(details.getFile().toPath());
+                }
+            });
+
+        Path cacheFile = getCacheFile().get().getAsFile().toPath();
+        BytecodeScanner scanner = BytecodeScanner.withCache(cacheFile);
+        Set<ScanFinding> findings = scanner.scan(classFiles);
+        try {
+            scanner.writeCache(cacheFile);
+        } catch (IOException ex) {
+            // The cache is an optimization only
+            getLogger().info("Failed to write the bytecode scan cache to {}", cacheFile, ex);
+        }
+        getLogger().info("Scanned {} of {} classes, the rest came from the cache",
+            scanner.getScannedClasses(), classFiles.size());
+
+        File descriptorsDirectory = getPluginDescriptors().get().getAsFile();
+        Map<String, FeatureStates> descriptors = PluginDescriptors.readDirectory(descriptorsDirectory);
+        Map<String, String> implementationClasses = PluginDescriptors.readImplementationClasses(descriptorsDirectory);
+        List<String> violations = new ArrayList<>();
+        Set<ScanFinding> attributed = new TreeSet<>();
+        File reportFile = getReportFile().get().getAsFile();
+        try (BufferedWriter writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("Plugins:\n");
+            for (Map.Entry<String, FeatureStates> descriptor : descriptors.entrySet()) {
+                String pluginId = descriptor.getKey();
+                String implementationClass = implementationClasses.get(pluginId);
+                // Without an implementation class, nothing tells which findings are the plugin's
+                Set<ScanFinding> pluginFindings = implementationClass == null
+                    ? findings
+                    : scanner.findingsReachableFrom(implementationClass, findings);
+                attributed.addAll(pluginFindings);
+                SupportLevel declared = descriptor.getValue().get(CompatibilityFeature.CONFIGURATION_CACHE);
+                String verdict = verdict(pluginId, declared, !pluginFindings.isEmpty());
+                writer.write("  " + pluginId + ": " + declared.getProtocolValue() + ", " + verdict + "\n");
+                for (ScanFinding finding : pluginFindings) {
+                    writer.write("    " + finding + "\n");
+                }
+                if (declared == SupportLevel.DECLARED_SUPPORTED && !pluginFindings.isEmpty()) {
+                    violations.add(pluginId);
+                }
+            }
+            Set<ScanFinding> unattributed = new TreeSet<>(findings);
+            unattributed.removeAll(attributed);
+            if (!unattributed.isEmpty()) {
+                writer.write("Findings not reachable from a plugin class:\n");
+                for (ScanFinding finding : unattributed) {
+                    writer.write("  " + finding + "\n");
+                }
+            }
+        } catch (IOException ex) {
+            throw new GradleException("Failed to write the scan report to " + reportFile, ex);
+        }
+
+        if (!violations.isEmpty()) {
+            String message = "Plugins " + violations + " declare Configuration Cache support, but the scan found "
+                + "incompatible usages in their classes. See the report at " + reportFile;
+            if (getVerify().get()) {
+                throw new GradleException(message);
+            }
+            getLogger().warn(message);
+        }
+    }
+
+    private String verdict(String pluginId, SupportLevel declared, boolean hasFindings) {
+        if (declared == SupportLevel.UNDECLARED) {
+            if (!hasFindings) {
+                // The scan only knows a few patterns, so finding none isn't a reason to declare support
+                return "no findings";
+            }
+            getLogger().lifecycle(
+                "Plugin '{}' doesn't declare Configuration Cache support, consider declaring configurationCache = false",
+                pluginId
+            );
+            return "consider declaring configurationCache = false";
+        }
+        if (declared == SupportLevel.DECLARED_SUPPORTED && hasFindings) {
+            return "contradicted by the findings";
+        }
+        return "consistent with the findings";
+    }
+}
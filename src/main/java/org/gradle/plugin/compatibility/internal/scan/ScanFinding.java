@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A use of the Gradle API that is known to break the Configuration Cache.
+ */
+public final class ScanFinding implements Comparable<ScanFinding> {
+    public enum Kind {
+        PROJECT_ACCESS_AT_EXECUTION("calls Task.getProject() at execution time"),
+        PROJECT_FIELD_IN_TASK("stores a Project in a task field"),
+        BUILD_FINISHED_LISTENER("registers a Gradle.buildFinished listener");
+
+        private final String description;
+
+        Kind(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final Kind kind;
+    private final String className;
+    private final String member;
+
+    ScanFinding(Kind kind, String className, String member) {
+        this.kind = kind;
+        this.className = className;
+        this.member = member;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the binary name of the class, like {@code com.example.MyTask}.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the name of the field or method where the problem was found.
+     */
+    public String getMember() {
+        return member;
+    }
+
+    @Override
+    public int compareTo(ScanFinding o) {
+        int result = className.compareTo(o.className);
+        if (result == 0) {
+            result = member.compareTo(o.member);
+        }
+        if (result == 0) {
+            result = kind.compareTo(o.kind);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ScanFinding that = (ScanFinding) o;
+        return kind == that.kind && className.equals(that.className) && member.equals(that.member);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, className, member);
+    }
+
+    @Override
+    public String toString() {
+        return className + "." + member + " " + kind.getDescription();
+    }
+}
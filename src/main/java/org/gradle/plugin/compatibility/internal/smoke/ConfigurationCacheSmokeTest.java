@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.smoke;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.plugin.compatibility.internal.CompatibilityFeature;
+import org.gradle.plugin.compatibility.internal.FeatureStates;
+import org.gradle.plugin.compatibility.internal.PluginDescriptors;
+import org.gradle.plugin.compatibility.internal.SupportLevel;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Runs every plugin of the project in a generated build with the Configuration Cache enabled, once per configured
+ * Gradle installation, and checks the outcome against the declared Configuration Cache support.
+ * <p>
+ * The builds run in parallel in workers. Each outcome is cached by the hash of the plugin classpath and the Gradle
+ * version, so only the combinations that changed are run again. Builds that couldn't run aren't outcomes: they fail
+ * the task and are run again next time.
+ */
+public abstract class ConfigurationCacheSmokeTest extends DefaultTask {
+    private static final String CORE_API_JAR_PREFIX = "gradle-core-api-";
+
+    /**
+     * The plugin jar and its runtime dependencies.
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getPluginClasspath();
+
+    /**
+     * The Gradle TestKit used to run the builds.
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getTestKitClasspath();
+
+    /**
+     * The directory with the generated plugin descriptors, including the declared compatibility.
+     */
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getPluginDescriptors();
+
+    /**
+     * The local Gradle installations to run the builds with. Only their versions are tracked as inputs.
+     */
+    @Internal
+    public abstract ConfigurableFileCollection getGradleInstallations();
+
+    /**
+     * The tasks to run in the generated builds.
+     */
+    @Input
+    public abstract ListProperty<String> getTaskNames();
+
+    /**
+     * The outcomes of previous runs, keyed by the plugin classpath hash and the Gradle version.
+     */
+    @Internal
+    public abstract DirectoryProperty getResultsCache();
+
+    /**
+     * The directory for the generated builds and the TestKit state.
+     */
+    @Internal
+    public abstract DirectoryProperty getWorkingDirectory();
+
+    /**
+     * The report with the outcome per plugin and Gradle version.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getReportFile();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * The versions of the {@link #getGradleInstallations() Gradle installations}.
+     */
+    @Input
+    public Provider<List<String>> getGradleVersions() {
+        return getGradleInstallations().getElements().map(installations -> {
+            List<String> result = new ArrayList<>();
+            installations.forEach(installation -> result.add(gradleVersion(installation.getAsFile())));
+            return result;
+        });
+    }
+
+    @TaskAction
+    void runSmokeTests() {
+        SortedMap<String, FeatureStates> descriptors =
+            PluginDescriptors.readDirectory(getPluginDescriptors().get().getAsFile());
+        SortedMap<String, File> installations = new TreeMap<>();
+        for (File installation : getGradleInstallations().getFiles()) {
+            installations.put(gradleVersion(installation), installation);
+        }
+        if (installations.isEmpty()) {
+            getLogger().warn("No Gradle installations are configured, skipping the Configuration Cache smoke test");
+        }
+
+        File resultsRoot = new File(getResultsCache().get().getAsFile(), classpathHash());
+        File workingDirectory = getWorkingDirectory().get().getAsFile();
+        WorkQueue queue = getWorkerExecutor().classLoaderIsolation(
+            spec -> spec.getClasspath().from(getTestKitClasspath())
+        );
+        int submitted = 0;
+        for (Map.Entry<String, File> installation : installations.entrySet()) {
+            String version = installation.getKey();
+            for (String pluginId : descriptors.keySet()) {
+                File resultFile = resultFile(resultsRoot, version, pluginId);
+                if (hasOutcome(resultFile)) {
+                    continue;
+                }
+                submitted++;
+                queue.submit(ConfigurationCacheSmokeTestAction.class, parameters -> {
+                    parameters.getPluginId().set(pluginId);
+                    parameters.getPluginClasspath().from(getPluginClasspath());
+                    parameters.getGradleInstallation().set(installation.getValue());
+                    parameters.getTaskNames().set(getTaskNames());
+                    parameters.getFixtureDirectory().set(new File(workingDirectory, version + "/" + pluginId));
+                    parameters.getTestKitDirectory().set(new File(workingDirectory, "test-kit"));
+                    parameters.getResultFile().set(resultFile);
+                });
+            }
+        }
+        queue.await();
+        getLogger().info("Ran {} smoke tests, the rest came from the results cache", submitted);
+
+        report(descriptors, installations.keySet(), resultsRoot);
+    }
+
+    private void report(Map<String, FeatureStates> descriptors, Iterable<String> versions, File resultsRoot) {
+        List<String> violations = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        File reportFile = getReportFile().get().getAsFile();
+        try (BufferedWriter writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, FeatureStates> descriptor : descriptors.entrySet()) {
+                String pluginId = descriptor.getKey();
+                SupportLevel declared = descriptor.getValue().get(CompatibilityFeature.CONFIGURATION_CACHE);
+                writer.write(pluginId + ": " + declared.getProtocolValue() + "\n");
+                boolean allCompatible = true;
+                for (String version : versions) {
+                    Properties result = readResult(resultFile(resultsRoot, version, pluginId));
+                    String error = result.getProperty(ConfigurationCacheSmokeTestAction.ERROR);
+                    if (error != null) {
+                        allCompatible = false;
+                        writer.write("  Gradle " + version + ": error\n");
+                        writer.write("    " + error.replace("\n", "\n    ") + "\n");
+                        errors.add(pluginId + " on Gradle " + version);
+                        continue;
+                    }
+                    boolean compatible =
+                        Boolean.parseBoolean(result.getProperty(ConfigurationCacheSmokeTestAction.COMPATIBLE));
+                    allCompatible &= compatible;
+                    writer.write("  Gradle " + version + ": " + (compatible ? "stored and reused" : "failed") + "\n");
+                    if (!compatible) {
+                        String reason = result.getProperty(ConfigurationCacheSmokeTestAction.REASON, "");
+                        writer.write("    " + reason.replace("\n", "\n    ") + "\n");
+                        if (declared == SupportLevel.DECLARED_SUPPORTED) {
+                            violations.add(pluginId + " on Gradle " + version);
+                        }
+                    }
+                }
+                if (allCompatible && declared == SupportLevel.UNDECLARED) {
+                    getLogger().lifecycle(
+                        "Plugin '{}' works with the Configuration Cache, consider declaring configurationCache = true",
+                        pluginId
+                    );
+                }
+            }
+        } catch (IOException ex) {
+            throw new GradleException("Failed to write the smoke test report to " + reportFile, ex);
+        }
+
+        if (!violations.isEmpty()) {
+            throw new GradleException(
+                "Plugins declare Configuration Cache support, but the smoke test failed for " + violations
+                    + ". See the report at " + reportFile
+            );
+        }
+        if (!errors.isEmpty()) {
+            throw new GradleException(
+                "The smoke test could not run the builds for " + errors + ". They will run again next time. "
+                    + "See the report at " + reportFile
+            );
+        }
+    }
+
+    /**
+     * Returns {@code true} if the result file holds the outcome of a previous run, rather than an error.
+     */
+    static boolean hasOutcome(File resultFile) {
+        return resultFile.isFile()
+            && readResult(resultFile).getProperty(ConfigurationCacheSmokeTestAction.ERROR) == null;
+    }
+
+    private static File resultFile(File resultsRoot, String version, String pluginId) {
+        return new File(resultsRoot, version + "/" + pluginId + ".properties");
+    }
+
+    private static Properties readResult(File resultFile) {
+        Properties result = new Properties();
+        try (InputStream in = Files.newInputStream(resultFile.toPath())) {
+            result.load(in);
+        } catch (IOException ex) {
+            throw new GradleException("Failed to read the smoke test result " + resultFile, ex);
+        }
+        return result;
+    }
+
+    /**
+     * Hashes the plugin classpath and the tasks to run, which together determine the outcome for a Gradle version.
+     */
+    private String classpathHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        try {
+            for (File file : getPluginClasspath().getAsFileTree().getFiles()) {
+                digest.update(Files.readAllBytes(file.toPath()));
+            }
+        } catch (IOException ex) {
+            throw new GradleException("Failed to hash the plugin classpath", ex);
+        }
+        digest.update(String.join(" ", getTaskNames().get()).getBytes(StandardCharsets.UTF_8));
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Determines the version of the Gradle installation from the name of its core API jar.
+     */
+    static String gradleVersion(File installation) {
+        String[] jars = new File(installation, "lib").list(
+            (dir, name) -> name.startsWith(CORE_API_JAR_PREFIX) && name.endsWith(".jar")
+        );
+        if (jars == null || jars.length != 1) {
+            throw new InvalidUserDataException(installation + " is not a Gradle installation");
+        }
+        return jars[0].substring(CORE_API_JAR_PREFIX.length(), jars[0].length() - ".jar".length());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.smoke;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.UnexpectedBuildFailure;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Applies a single plugin in a generated build and runs it twice with the Configuration Cache enabled. The plugin is
+ * compatible if the first run stores a cache entry and the second one reuses it. A failing build, for example because
+ * of Configuration Cache problems, makes the plugin incompatible, with the reported problems as the reason.
+ * <p>
+ * If Gradle can't run at all, the result records the {@value #ERROR} instead of an outcome, so the result isn't
+ * reused and the plugin is tested again by the next run.
+ * <p>
+ * Runs in a worker with the TestKit on the classpath, so the plugin itself doesn't depend on the TestKit.
+ */
+public abstract class ConfigurationCacheSmokeTestAction implements WorkAction<ConfigurationCacheSmokeTestAction.Parameters> {
+    static final String COMPATIBLE = "compatible";
+    static final String REASON = "reason";
+    static final String ERROR = "error";
+    // Ends the first line of the Configuration Cache problems, like "1 problem was found storing the configuration cache."
+    private static final String PROBLEMS_HEADER_END = " found storing the configuration cache";
+
+    public interface Parameters extends WorkParameters {
+        Property<String> getPluginId();
+
+        ConfigurableFileCollection getPluginClasspath();
+
+        DirectoryProperty getGradleInstallation();
+
+        ListProperty<String> getTaskNames();
+
+        DirectoryProperty getFixtureDirectory();
+
+        DirectoryProperty getTestKitDirectory();
+
+        RegularFileProperty getResultFile();
+    }
+
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        Properties result = new Properties();
+        try {
+            String reason = run(parameters);
+            result.setProperty(COMPATIBLE, String.valueOf(reason == null));
+            if (reason != null) {
+                result.setProperty(REASON, reason);
+            }
+        } catch (RuntimeException | IOException ex) {
+            // Gradle couldn't be started or the fixture couldn't be written. This must not hide the results for the
+            // other plugins and versions.
+            result.setProperty(ERROR, "Could not run the build: " + ex);
+        }
+        writeResult(parameters.getResultFile().get().getAsFile().toPath(), result);
+    }
+
+    /**
+     * Runs the builds and returns the reason for the incompatibility, or {@code null} if the plugin is compatible.
+     */
+    private static @Nullable String run(Parameters parameters) throws IOException {
+        Path fixture = parameters.getFixtureDirectory().get().getAsFile().toPath();
+        writeFixture(fixture, parameters.getPluginId().get());
+
+        List<String> arguments = new ArrayList<>(parameters.getTaskNames().get());
+        arguments.add("--configuration-cache");
+        GradleRunner runner = GradleRunner.create()
+            .withGradleInstallation(parameters.getGradleInstallation().get().getAsFile())
+            .withTestKitDir(parameters.getTestKitDirectory().get().getAsFile())
+            .withProjectDir(fixture.toFile())
+            .withPluginClasspath(parameters.getPluginClasspath().getFiles())
+            .withArguments(arguments);
+
+        BuildResult first;
+        try {
+            first = runner.build();
+        } catch (UnexpectedBuildFailure ex) {
+            // Configuration Cache problems fail the build, which is the incompatibility the smoke test looks for
+            return "the first build failed:\n" + problems(ex.getBuildResult().getOutput());
+        }
+        if (!first.getOutput().contains("Configuration cache entry stored")) {
+            return "the first build didn't store a cache entry:\n" + first.getOutput();
+        }
+        BuildResult second;
+        try {
+            second = runner.build();
+        } catch (UnexpectedBuildFailure ex) {
+            return "the second build failed:\n" + problems(ex.getBuildResult().getOutput());
+        }
+        if (!second.getOutput().contains("Configuration cache entry reused")) {
+            return "the second build didn't reuse the cache entry:\n" + second.getOutput();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the part of the build output that reports the Configuration Cache problems, up to the hints for rerunning
+     * the build, or the whole output if the build failed for another reason.
+     */
+    static String problems(String output) {
+        int start = output.indexOf(PROBLEMS_HEADER_END);
+        if (start < 0) {
+            return output;
+        }
+        int lineStart = output.lastIndexOf('\n', start) + 1;
+        int end = output.indexOf("\n* Try:", start);
+        return output.substring(lineStart, end < 0 ? output.length() : end).trim();
+    }
+
+    private static void writeFixture(Path fixture, String pluginId) throws IOException {
+        // A cache entry left over from an earlier run would be reused by the first build
+        if (Files.exists(fixture)) {
+            try (Stream<Path> files = Files.walk(fixture)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(fixture);
+        Files.write(
+            fixture.resolve("settings.gradle"),
+            "rootProject.name = 'configuration-cache-smoke-test'\n".getBytes(StandardCharsets.UTF_8)
+        );
+        Files.write(
+            fixture.resolve("build.gradle"),
+            ("plugins {\n    id '" + pluginId + "'\n}\n").getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    private static void writeResult(Path resultFile, Properties result) {
+        try {
+            Files.createDirectories(resultFile.getParent());
+            try (OutputStream out = Files.newOutputStream(resultFile)) {
+                result.store(out, null);
+            }
+        } catch (IOException ex) {
+            throw new GradleException("Failed to write the smoke test result to " + resultFile, ex);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.plugin.compatibility.CompatibilityCatalogExtension;
+import org.gradle.plugin.compatibility.internal.CompatibilityCatalog;
+import org.gradle.plugin.compatibility.internal.inject.InjectCompatibilityAction;
+import org.gradle.util.GradleVersion;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adds compatibility declarations to the plugin descriptors of prebuilt jars, for example of plugins that are
+ * redistributed after verifying their compatibility.
+ * <p>
+ * The compatibility comes from a catalog file in the format described by {@link CompatibilityCatalogExtension}.
+ * Declared features replace the ones already in the jar, the other features are kept. Every jar is written to the
+ * {@linkplain #getOutputDirectory() output directory} with its original file name. Entries other than the changed
+ * descriptors and the compatibility index are copied without decompressing them, so the cost of processing a jar is
+ * close to the cost of copying it.
+ * <pre>
+ * tasks.register&lt;InjectCompatibility&gt;("injectCompatibility") {
+ *     jars.from(configurations.named("vendorPlugins"))
+ * }
+ * </pre>
+ *
+ * @since 1.1.0
+ */
+@CacheableTask
+public abstract class InjectCompatibility extends DefaultTask {
+    private static final GradleVersion SETTINGS_DIRECTORY_MIN_VERSION = GradleVersion.version("8.13");
+
+    public InjectCompatibility() {
+        getCatalogFile().convention(
+            rootDirectory().map(root -> root.file(CompatibilityCatalogExtension.DEFAULT_CATALOG_LOCATION))
+        );
+        getOutputDirectory().convention(getProjectLayout().getBuildDirectory().dir(getName()));
+    }
+
+    /**
+     * The jars to process.
+     *
+     * @return the jars
+     * @since 1.1.0
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NAME_ONLY)
+    public abstract ConfigurableFileCollection getJars();
+
+    /**
+     * The catalog with the compatibility to add. Defaults to
+     * {@value CompatibilityCatalogExtension#DEFAULT_CATALOG_LOCATION} in the root project directory, the same file used
+     * by the compatibility catalog settings plugin.
+     *
+     * @return the catalog file property
+     * @since 1.1.0
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getCatalogFile();
+
+    /**
+     * The directory the processed jars are written to.
+     *
+     * @return the output directory property
+     * @since 1.1.0
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    /**
+     * Injected service.
+     *
+     * @return the project layout
+     * @since 1.1.0
+     */
+    @Inject
+    protected abstract ProjectLayout getProjectLayout();
+
+    /**
+     * Injected service.
+     *
+     * @return the file system operations
+     * @since 1.1.0
+     */
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    /**
+     * Injected service.
+     *
+     * @return the provider factory
+     * @since 1.1.0
+     */
+    @Inject
+    protected abstract ProviderFactory getProviders();
+
+    /**
+     * Injected service.
+     *
+     * @return the worker executor
+     * @since 1.1.0
+     */
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * Returns the root project directory. The settings directory is the root project directory, but it's only a
+     * service of the layout since Gradle 8.13, so older versions read it from the project when the task is created.
+     */
+    private Provider<Directory> rootDirectory() {
+        ProjectLayout layout = getProjectLayout();
+        if (GradleVersion.current().compareTo(SETTINGS_DIRECTORY_MIN_VERSION) >= 0) {
+            return getProviders().provider(layout::getSettingsDirectory);
+        }
+        File rootDir = getProject().getRootDir();
+        return layout.dir(getProviders().provider(() -> rootDir));
+    }
+
+    @TaskAction
+    void inject() {
+        File catalogFile = getCatalogFile().get().getAsFile();
+        Map<String, Integer> compatibility;
+        try (Reader reader = Files.newBufferedReader(catalogFile.toPath(), StandardCharsets.ISO_8859_1)) {
+            compatibility = CompatibilityCatalog.parse(reader, catalogFile.getPath());
+        } catch (IOException ex) {
+            throw new GradleException("Failed to read the compatibility catalog " + catalogFile, ex);
+        }
+
+        Set<File> jars = getJars().getFiles();
+        Set<String> names = new HashSet<>();
+        for (File jar : jars) {
+            if (!names.add(jar.getName())) {
+                throw new InvalidUserDataException("Multiple jars are named " + jar.getName());
+            }
+        }
+
+        File outputDirectory = getOutputDirectory().get().getAsFile();
+        getFileSystemOperations().delete(spec -> spec.delete(outputDirectory));
+        if (!outputDirectory.mkdirs()) {
+            throw new GradleException("Failed to create " + outputDirectory);
+        }
+
+        WorkQueue queue = getWorkerExecutor().noIsolation();
+        for (File jar : jars) {
+            queue.submit(InjectCompatibilityAction.class, parameters -> {
+                parameters.getSourceJar().set(jar);
+                parameters.getTargetJar().set(new File(outputDirectory, jar.getName()));
+                parameters.getCompatibility().set(compatibility);
+            });
+        }
+        queue.await();
+        getLogger().info("Processed {} jars", jars.size());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol.DECLARED_SUPPORTED;
+import static org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol.DECLARED_UNSUPPORTED;
+import static org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol.FEATURE_CONFIGURATION_CACHE;
+import static org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol.FEATURE_ISOLATED_PROJECTS;
+import static org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol.UNDECLARED;
+
+@DisplayName("CompatibilityDescriptorReader")
+class CompatibilityDescriptorReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should read the declared features from a jar")
+    void shouldReadFromJar() throws IOException {
+        Path jar = writeJar("plugin.jar", "com.example", "compatibility.feature.configuration-cache=DECLARED_SUPPORTED");
+
+        Map<String, String> features = new CompatibilityDescriptorReader(8).read("com.example", jar);
+
+        assertThat(features)
+            .containsEntry(FEATURE_CONFIGURATION_CACHE, DECLARED_SUPPORTED)
+            .containsEntry(FEATURE_ISOLATED_PROJECTS, UNDECLARED);
+    }
+
+    @Test
+    @DisplayName("should return null for plugins that aren't in the jar")
+    void shouldReturnNullForMissingPlugins() throws IOException {
+        Path jar = writeJar("plugin.jar", "com.example", "");
+
+        assertThat(new CompatibilityDescriptorReader(8).read("com.other", jar)).isNull();
+    }
+
+    @Test
+    @DisplayName("should read the declared features through a class loader")
+    void shouldReadThroughClassLoader() throws IOException {
+        Path jar = writeJar("plugin.jar", "com.example", "compatibility.feature.isolated-projects=DECLARED_UNSUPPORTED");
+        CompatibilityDescriptorReader reader = new CompatibilityDescriptorReader(8);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            assertThat(reader.read("com.example", classLoader))
+                .containsEntry(FEATURE_ISOLATED_PROJECTS, DECLARED_UNSUPPORTED);
+            assertThat(reader.read("com.other", classLoader)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should cache the declarations until the jar changes")
+    void shouldCacheUntilJarChanges() throws IOException {
+        Path jar = writeJar("plugin.jar", "com.example", "compatibility.feature.configuration-cache=DECLARED_SUPPORTED");
+        CompatibilityDescriptorReader reader = new CompatibilityDescriptorReader(8);
+        Map<String, String> first = reader.read("com.example", jar);
+
+        assertThat(reader.read("com.example", jar)).isSameAs(first);
+
+        writeJar("plugin.jar", "com.example", "compatibility.feature.configuration-cache=DECLARED_UNSUPPORTED");
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 10_000));
+
+        assertThat(reader.read("com.example", jar)).containsEntry(FEATURE_CONFIGURATION_CACHE, DECLARED_UNSUPPORTED);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used jars")
+    void shouldEvictLeastRecentlyUsedJars() throws IOException {
+        Path a = writeJar("a.jar", "com.example.a", "");
+        Path b = writeJar("b.jar", "com.example.b", "");
+        CompatibilityDescriptorReader reader = new CompatibilityDescriptorReader(1);
+        Map<String, String> first = reader.read("com.example.a", a);
+
+        reader.read("com.example.b", b);
+
+        assertThat(reader.read("com.example.a", a)).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("should read the index instead of the descriptors if the jar has one")
+    void shouldPreferIndex() throws IOException {
+        Path jar = writeJar("plugin.jar", "com.example", "",
+            "com.example=configuration-cache:DECLARED_SUPPORTED\ncom.example.other=configuration-cache:UNDECLARED\n");
+        CompatibilityDescriptorReader reader = new CompatibilityDescriptorReader(8);
+
+        assertThat(reader.read("com.example", jar)).containsEntry(FEATURE_CONFIGURATION_CACHE, DECLARED_SUPPORTED);
+        assertThat(reader.read("com.example.other", jar)).containsEntry(FEATURE_CONFIGURATION_CACHE, UNDECLARED);
+    }
+
+    private Path writeJar(String name, String pluginId, String descriptor) throws IOException {
+        return writeJar(name, pluginId, descriptor, null);
+    }
+
+    private Path writeJar(String name, String pluginId, String descriptor, @Nullable String index) throws IOException {
+        Path jar = directory.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("META-INF/gradle-plugins/" + pluginId + ".properties"));
+            zip.write(("implementation-class=Plugin\n" + descriptor + "\n").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            if (index != null) {
+                zip.putNextEntry(new ZipEntry(CompatibilityDeclarationProtocol.INDEX_RESOURCE));
+                zip.write(index.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompatibilityDiff")
+class CompatibilityDiffTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should report features that are no longer supported")
+    void shouldReportRegressions() throws IOException {
+        Path before = writeJar("before/plugin-1.0.jar",
+            "META-INF/gradle-plugins/com.example.a.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n"
+                + "compatibility.feature.isolated-projects=DECLARED_SUPPORTED\n"
+                + "compatibility.feature.parallel-configuration=DECLARED_UNSUPPORTED\n",
+            "META-INF/gradle-plugins/com.example.removed.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        Path after = writeJar("after/plugin-2.0.jar",
+            "META-INF/gradle-plugins/com.example.a.properties",
+            "compatibility.feature.configuration-cache=DECLARED_UNSUPPORTED\n"
+                + "compatibility.feature.parallel-configuration=DECLARED_SUPPORTED\n",
+            "META-INF/gradle-plugins/com.example.added.properties",
+            "compatibility.feature.configuration-cache=DECLARED_UNSUPPORTED\n");
+
+        assertThat(CompatibilityDiff.compare(before, after)).extracting(Object::toString).containsExactly(
+            "com.example.a configuration-cache: DECLARED_SUPPORTED -> DECLARED_UNSUPPORTED",
+            "com.example.a isolated-projects: DECLARED_SUPPORTED -> UNDECLARED"
+        );
+        assertThat(CompatibilityDiff.compare(after, before)).extracting(Object::toString).containsExactly(
+            "com.example.a parallel-configuration: DECLARED_SUPPORTED -> DECLARED_UNSUPPORTED"
+        );
+    }
+
+    @Test
+    @DisplayName("should match plugins across the jars of directories")
+    void shouldCompareDirectories() throws IOException {
+        writeJar("before/com/example/a/1.0/a-1.0.jar",
+            "META-INF/gradle-plugins/com.example.a.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("before/com/example/b/1.0/b-1.0.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("after/com/example/a/1.1/a-1.1.jar",
+            "META-INF/gradle-plugin-compatibility/index.properties",
+            "com.example.a=configuration-cache:DECLARED_SUPPORTED\n");
+        writeJar("after/com/example/b/1.2/b-1.2.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "implementation-class=B\n");
+
+        assertThat(CompatibilityDiff.compare(directory.resolve("before"), directory.resolve("after")))
+            .extracting(Object::toString)
+            .containsExactly("com.example.b configuration-cache: DECLARED_SUPPORTED -> UNDECLARED");
+    }
+
+    @Test
+    @DisplayName("should compare the newest versions of the plugins of repository snapshots")
+    void shouldCompareNewestVersions() throws IOException {
+        writeJar("before/com/example/b/1.9/b-1.9.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "implementation-class=B\n");
+        writeJar("before/com/example/b/1.10/b-1.10.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("after/com/example/b/1.10/b-1.10.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("after/com/example/b/1.11-rc-1/b-1.11-rc-1.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("after/com/example/b/1.11/b-1.11.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_UNSUPPORTED\n");
+
+        assertThat(CompatibilityDiff.compare(directory.resolve("before"), directory.resolve("after")))
+            .extracting(Object::toString)
+            .containsExactly("com.example.b configuration-cache: DECLARED_SUPPORTED -> DECLARED_UNSUPPORTED");
+    }
+
+    @Test
+    @DisplayName("should reject directories with several jars of a plugin without a version")
+    void shouldRejectUnversionedDuplicates() throws IOException {
+        Path single = writeJar("before/b-1.0.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("after/libs/b.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n");
+        writeJar("after/libs/b-all.jar",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "implementation-class=B\n");
+
+        assertThatThrownBy(() -> CompatibilityDiff.compare(single, directory.resolve("after")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Plugin com.example.b is in both")
+            .hasMessageContaining("b.jar")
+            .hasMessageContaining("b-all.jar");
+    }
+
+    @Test
+    @DisplayName("should order versions by their numeric parts and qualifiers")
+    void shouldCompareVersions() {
+        assertThat(CompatibilityDiff.compareVersions("1.10", "1.9")).isPositive();
+        assertThat(CompatibilityDiff.compareVersions("1.0.1", "1.0")).isPositive();
+        assertThat(CompatibilityDiff.compareVersions("1.0", "1.0-rc-1")).isPositive();
+        assertThat(CompatibilityDiff.compareVersions("1.0-SNAPSHOT", "1.0")).isNegative();
+        assertThat(CompatibilityDiff.compareVersions("1.0-rc-2", "1.0-rc-1")).isPositive();
+        assertThat(CompatibilityDiff.compareVersions("2.0", "2.0")).isZero();
+    }
+
+    private Path writeJar(String path, String... namesAndContents) throws IOException {
+        Path jar = directory.resolve(path);
+        Files.createDirectories(jar.getParent());
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PluginJarScanner")
+class PluginJarScannerTest {
+
+    @TempDir
+    Path repository;
+
+    @Test
+    @DisplayName("should write a CSV row per plugin")
+    void shouldWriteCsvRowPerPlugin() throws IOException {
+        writeJar("com/example/plugins.jar",
+            "META-INF/gradle-plugins/com.example.a.properties",
+            "implementation-class=A\ncompatibility.feature.configuration-cache=DECLARED_SUPPORTED\n",
+            "META-INF/gradle-plugins/com.example.b.properties",
+            "implementation-class=B\n",
+            "com/example/A.class",
+            "not really a class");
+        writeJar("com/example/library.jar", "com/example/Library.class", "");
+
+        StringWriter output = new StringWriter();
+        long scanned = new PluginJarScanner(PluginJarScanner.Format.CSV, 2).scan(repository, output);
+
+        assertThat(scanned).isEqualTo(2);
+        assertThat(output.toString()).isEqualTo(
+            "jar,plugin,configuration-cache,isolated-projects,parallel-configuration,error\n"
+                + "com/example/plugins.jar,com.example.a,DECLARED_SUPPORTED,UNDECLARED,UNDECLARED,\n"
+                + "com/example/plugins.jar,com.example.b,UNDECLARED,UNDECLARED,UNDECLARED,\n"
+        );
+    }
+
+    @Test
+    @DisplayName("should write JSON including unknown features")
+    void shouldWriteJsonIncludingUnknownFeatures() throws IOException {
+        writeJar("plugin.jar",
+            "META-INF/gradle-plugins/com.example.a.properties",
+            "compatibility.feature.isolated-projects=DECLARED_UNSUPPORTED\ncompatibility.feature.future=DECLARED_SUPPORTED\n");
+
+        StringWriter output = new StringWriter();
+        new PluginJarScanner(PluginJarScanner.Format.JSON, 1).scan(repository, output);
+
+        assertThat(output.toString()).isEqualTo(
+            "[\n{\"jar\":\"plugin.jar\",\"plugin\":\"com.example.a\",\"features\":{"
+                + "\"configuration-cache\":\"UNDECLARED\","
+                + "\"future\":\"DECLARED_SUPPORTED\","
+                + "\"isolated-projects\":\"DECLARED_UNSUPPORTED\","
+                + "\"parallel-configuration\":\"UNDECLARED\"}}\n]\n"
+        );
+    }
+
+    @Test
+    @DisplayName("should report unreadable jars without failing")
+    void shouldReportUnreadableJars() throws IOException {
+        Files.write(repository.resolve("broken.jar"), "not a zip".getBytes(StandardCharsets.UTF_8));
+
+        StringWriter output = new StringWriter();
+        new PluginJarScanner(PluginJarScanner.Format.CSV, 1).scan(repository, output);
+
+        assertThat(output.toString()).contains("broken.jar,,,,,");
+    }
+
+    private void writeJar(String path, String... namesAndContents) throws IOException {
+        Path jar = repository.resolve(path);
+        Files.createDirectories(jar.getParent());
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.Project;
+import org.gradle.plugin.compatibility.CompatibilityExtension;
+import org.gradle.plugin.compatibility.CompatibleFeatures;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.plugin.devel.PluginDeclaration;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the registry of the declarations of Gradle before 8.14. The stores and reads of a declaration come from the
+ * projects configured in parallel, so most tests race several threads against each other.
+ */
+@DisplayName("CompatibilityRegistry")
+class CompatibilityRegistryTest {
+    private static final int THREADS = 8;
+    private static final int STORES_PER_THREAD = 200;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply("java-gradle-plugin");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should apply every action stored concurrently")
+    void shouldApplyConcurrentStores() throws Exception {
+        PluginDeclaration declaration = declaration("concurrent-stores");
+        AtomicInteger applied = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < STORES_PER_THREAD; i++) {
+                CompatibilityRegistry.store(declaration, extension -> applied.incrementAndGet());
+            }
+            return null;
+        });
+        CompatibilityRegistry.resolve(declaration, extensionFactory());
+
+        assertThat(applied.get()).isEqualTo(THREADS * STORES_PER_THREAD);
+        assertThat(CompatibilityRegistry.getActionCount(declaration)).isEqualTo(THREADS * STORES_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("should apply the actions once when resolved concurrently")
+    void shouldResolveOnce() throws Exception {
+        PluginDeclaration declaration = declaration("concurrent-resolves");
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        CompatibilityRegistry.store(declaration, extension -> {
+            applied.incrementAndGet();
+            extension.features(features -> features.getConfigurationCache().set(true));
+        });
+        Supplier<CompatibilityExtension> factory = extensionFactory();
+
+        List<CompatibleFeatures> results = runConcurrently(() -> CompatibilityRegistry.resolve(declaration, () -> {
+            created.incrementAndGet();
+            return factory.get();
+        }));
+
+        assertThat(applied.get()).isEqualTo(1);
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(results).allSatisfy(features -> assertThat(features).isSameAs(results.get(0)));
+        assertThat(results.get(0).getConfigurationCache().get()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should reject stores after the first read")
+    void shouldRejectStoresAfterRead() {
+        PluginDeclaration declaration = declaration("sealed");
+        CompatibilityRegistry.store(declaration, extension -> {});
+        CompatibilityRegistry.resolve(declaration, extensionFactory());
+
+        assertThatThrownBy(() -> CompatibilityRegistry.store(declaration, extension -> {}))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("after it has been read");
+        assertThat(CompatibilityRegistry.getActionCount(declaration)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should either apply or reject each store racing with the first read")
+    void shouldApplyOrRejectStoresRacingWithRead() throws Exception {
+        PluginDeclaration declaration = declaration("racing");
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger applied = new AtomicInteger();
+        Supplier<CompatibilityExtension> factory = extensionFactory();
+        AtomicInteger started = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (started.getAndIncrement() == THREADS / 2) {
+                return CompatibilityRegistry.resolve(declaration, factory);
+            }
+            for (int i = 0; i < STORES_PER_THREAD; i++) {
+                try {
+                    CompatibilityRegistry.store(declaration, extension -> applied.incrementAndGet());
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException ex) {
+                    break;
+                }
+            }
+            return null;
+        });
+        CompatibilityRegistry.resolve(declaration, factory);
+
+        assertThat(applied.get()).isEqualTo(accepted.get());
+        assertThat(CompatibilityRegistry.getActionCount(declaration)).isEqualTo(accepted.get());
+    }
+
+    private PluginDeclaration declaration(String name) {
+        return project.getExtensions().getByType(GradlePluginDevelopmentExtension.class).getPlugins().create(name);
+    }
+
+    private Supplier<CompatibilityExtension> extensionFactory() {
+        return () -> project.getObjects().newInstance(CompatibilityExtension.class);
+    }
+
+    /**
+     * Runs the task on every thread at once, and returns the results.
+     */
+    private <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
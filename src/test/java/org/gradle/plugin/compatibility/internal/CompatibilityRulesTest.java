@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.CONFIGURATION_CACHE;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.ISOLATED_PROJECTS;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.PARALLEL_CONFIGURATION;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_SUPPORTED;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_UNSUPPORTED;
+
+@DisplayName("CompatibilityRules")
+class CompatibilityRulesTest {
+    private static final int NONE = FeatureStates.NONE.toPacked();
+
+    @Test
+    @DisplayName("should match plugin IDs by prefix and exactly")
+    void shouldMatchByPrefixAndExactly() {
+        Map<String, Integer> rules = new HashMap<>();
+        rules.put("com.acme.internal.*", states(CONFIGURATION_CACHE, DECLARED_SUPPORTED));
+        rules.put("com.acme.tool", states(ISOLATED_PROJECTS, DECLARED_SUPPORTED));
+
+        CompatibilityRules compiled = CompatibilityRules.compile(rules, NONE);
+
+        assertThat(compiled.resolve("com.acme.internal.a")).isEqualTo(states(CONFIGURATION_CACHE, DECLARED_SUPPORTED));
+        assertThat(compiled.resolve("com.acme.tool")).isEqualTo(states(ISOLATED_PROJECTS, DECLARED_SUPPORTED));
+        assertThat(compiled.resolve("com.acme.internal")).isEqualTo(NONE);
+        assertThat(compiled.resolve("com.acme.tools")).isEqualTo(NONE);
+        assertThat(compiled.resolve("com.acme")).isEqualTo(NONE);
+        assertThat(compiled.resolve("org.example")).isEqualTo(NONE);
+    }
+
+    @Test
+    @DisplayName("more specific rules should take precedence per feature")
+    void moreSpecificRulesShouldTakePrecedence() {
+        Map<String, Integer> rules = new HashMap<>();
+        rules.put("*", FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED)
+            .with(PARALLEL_CONFIGURATION, DECLARED_SUPPORTED)
+            .toPacked());
+        rules.put("com.acme.*", states(CONFIGURATION_CACHE, DECLARED_SUPPORTED));
+        rules.put("com.acme.legacy", states(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED));
+
+        CompatibilityRules compiled = CompatibilityRules.compile(rules, NONE);
+
+        assertThat(FeatureStates.fromPacked(compiled.resolve("com.acme.tool")))
+            .isEqualTo(FeatureStates.NONE
+                .with(CONFIGURATION_CACHE, DECLARED_SUPPORTED)
+                .with(PARALLEL_CONFIGURATION, DECLARED_SUPPORTED));
+        assertThat(FeatureStates.fromPacked(compiled.resolve("com.acme.legacy")))
+            .isEqualTo(FeatureStates.NONE
+                .with(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED)
+                .with(PARALLEL_CONFIGURATION, DECLARED_SUPPORTED));
+        assertThat(FeatureStates.fromPacked(compiled.resolve("org.example")))
+            .isEqualTo(FeatureStates.NONE
+                .with(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED)
+                .with(PARALLEL_CONFIGURATION, DECLARED_SUPPORTED));
+    }
+
+    @Test
+    @DisplayName("defaults should only fill features the rules leave undeclared")
+    void defaultsShouldFillUndeclaredFeatures() {
+        Map<String, Integer> rules = new HashMap<>();
+        rules.put("com.acme.*", states(CONFIGURATION_CACHE, DECLARED_SUPPORTED));
+        int defaults = FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED)
+            .with(ISOLATED_PROJECTS, DECLARED_UNSUPPORTED)
+            .toPacked();
+
+        CompatibilityRules compiled = CompatibilityRules.compile(rules, defaults);
+
+        assertThat(FeatureStates.fromPacked(compiled.resolve("com.acme.tool")))
+            .isEqualTo(FeatureStates.NONE
+                .with(CONFIGURATION_CACHE, DECLARED_SUPPORTED)
+                .with(ISOLATED_PROJECTS, DECLARED_UNSUPPORTED));
+        assertThat(compiled.resolve("org.example")).isEqualTo(defaults);
+    }
+
+    @Test
+    @DisplayName("should reject malformed patterns")
+    void shouldRejectMalformedPatterns() {
+        assertThatThrownBy(() -> CompatibilityRules.checkPattern("com.*.internal"))
+            .isInstanceOf(InvalidUserDataException.class)
+            .hasMessageContaining("com.*.internal");
+        assertThatThrownBy(() -> CompatibilityRules.checkPattern(""))
+            .isInstanceOf(InvalidUserDataException.class);
+        CompatibilityRules.checkPattern("com.acme.*");
+        CompatibilityRules.checkPattern("com.acme");
+    }
+
+    private static int states(CompatibilityFeature feature, SupportLevel level) {
+        return FeatureStates.NONE.with(feature, level).toPacked();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.CONFIGURATION_CACHE;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_SUPPORTED;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_UNSUPPORTED;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.UNDECLARED;
+
+@DisplayName("CompatibilityVariantAttributes")
+class CompatibilityVariantAttributesTest {
+
+    @Test
+    @DisplayName("jar is supported only if all plugins are")
+    void jarIsSupportedOnlyIfAllPluginsAre() {
+        assertThat(aggregate(DECLARED_SUPPORTED, DECLARED_SUPPORTED)).isEqualTo(DECLARED_SUPPORTED);
+        assertThat(aggregate(DECLARED_SUPPORTED, UNDECLARED)).isEqualTo(UNDECLARED);
+    }
+
+    @Test
+    @DisplayName("a single unsupported plugin makes the jar unsupported")
+    void singleUnsupportedPluginMakesJarUnsupported() {
+        assertThat(aggregate(DECLARED_SUPPORTED, DECLARED_UNSUPPORTED, UNDECLARED)).isEqualTo(DECLARED_UNSUPPORTED);
+    }
+
+    @Test
+    @DisplayName("jar without plugins is undeclared")
+    void jarWithoutPluginsIsUndeclared() {
+        assertThat(CompatibilityVariantAttributes.aggregate(Collections.emptyMap(), CONFIGURATION_CACHE))
+            .isEqualTo(UNDECLARED);
+    }
+
+    private static SupportLevel aggregate(SupportLevel... levels) {
+        Map<String, Integer> states = new LinkedHashMap<>();
+        for (int i = 0; i < levels.length; i++) {
+            states.put("plugin" + i, FeatureStates.NONE.with(CONFIGURATION_CACHE, levels[i]).toPacked());
+        }
+        return CompatibilityVariantAttributes.aggregate(states, CONFIGURATION_CACHE);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.CONFIGURATION_CACHE;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.ISOLATED_PROJECTS;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.PARALLEL_CONFIGURATION;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_SUPPORTED;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_UNSUPPORTED;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.UNDECLARED;
+
+@DisplayName("FeatureStates")
+class FeatureStatesTest {
+
+    @Test
+    @DisplayName("all features are undeclared by default")
+    void allFeaturesAreUndeclaredByDefault() {
+        for (CompatibilityFeature feature : CompatibilityFeature.all()) {
+            assertThat(FeatureStates.NONE.get(feature)).isEqualTo(UNDECLARED);
+        }
+        assertThat(FeatureStates.NONE.isEmpty()).isTrue();
+        assertThat(FeatureStates.NONE.toPacked()).isZero();
+    }
+
+    @Test
+    @DisplayName("should store features independently")
+    void shouldStoreFeaturesIndependently() {
+        FeatureStates states = FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_SUPPORTED)
+            .with(PARALLEL_CONFIGURATION, DECLARED_UNSUPPORTED);
+
+        assertThat(states.get(CONFIGURATION_CACHE)).isEqualTo(DECLARED_SUPPORTED);
+        assertThat(states.get(ISOLATED_PROJECTS)).isEqualTo(UNDECLARED);
+        assertThat(states.get(PARALLEL_CONFIGURATION)).isEqualTo(DECLARED_UNSUPPORTED);
+
+        FeatureStates updated = states.with(CONFIGURATION_CACHE, UNDECLARED);
+        assertThat(updated.get(CONFIGURATION_CACHE)).isEqualTo(UNDECLARED);
+        assertThat(updated.get(PARALLEL_CONFIGURATION)).isEqualTo(DECLARED_UNSUPPORTED);
+    }
+
+    @Test
+    @DisplayName("should round-trip through the packed form")
+    void shouldRoundTripThroughPackedForm() {
+        FeatureStates states = FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED)
+            .with(ISOLATED_PROJECTS, DECLARED_SUPPORTED);
+
+        FeatureStates restored = FeatureStates.fromPacked(states.toPacked());
+
+        assertThat(restored).isEqualTo(states);
+        assertThat(restored.hashCode()).isEqualTo(states.hashCode());
+    }
+
+    @Test
+    @DisplayName("should intern identical snapshots")
+    void shouldInternIdenticalSnapshots() {
+        FeatureStates first = FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_SUPPORTED)
+            .with(ISOLATED_PROJECTS, DECLARED_UNSUPPORTED);
+        FeatureStates second = FeatureStates.NONE
+            .with(ISOLATED_PROJECTS, DECLARED_UNSUPPORTED)
+            .orElse(FeatureStates.NONE.with(CONFIGURATION_CACHE, DECLARED_SUPPORTED));
+
+        assertThat(second).isSameAs(first);
+        assertThat(FeatureStates.fromPacked(first.toPacked())).isSameAs(first);
+        assertThat(first.with(CONFIGURATION_CACHE, UNDECLARED).with(ISOLATED_PROJECTS, UNDECLARED))
+            .isSameAs(FeatureStates.NONE);
+    }
+
+    @Test
+    @DisplayName("should reject invalid packed values")
+    void shouldRejectInvalidPackedValues() {
+        // 0b11 isn't a valid support level
+        assertThatThrownBy(() -> FeatureStates.fromPacked(0b11))
+            .isInstanceOf(IllegalArgumentException.class);
+        // Bits beyond the last known feature
+        assertThatThrownBy(() -> FeatureStates.fromPacked(1 << 30))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("orElse should only fill undeclared features")
+    void orElseShouldOnlyFillUndeclaredFeatures() {
+        FeatureStates declared = FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_UNSUPPORTED);
+        FeatureStates fallback = FeatureStates.NONE
+            .with(CONFIGURATION_CACHE, DECLARED_SUPPORTED)
+            .with(ISOLATED_PROJECTS, DECLARED_SUPPORTED);
+
+        FeatureStates merged = declared.orElse(fallback);
+
+        assertThat(merged.get(CONFIGURATION_CACHE)).isEqualTo(DECLARED_UNSUPPORTED);
+        assertThat(merged.get(ISOLATED_PROJECTS)).isEqualTo(DECLARED_SUPPORTED);
+        assertThat(merged.get(PARALLEL_CONFIGURATION)).isEqualTo(UNDECLARED);
+    }
+}
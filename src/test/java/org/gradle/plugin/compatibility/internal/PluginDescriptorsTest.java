@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.CONFIGURATION_CACHE;
+import static org.gradle.plugin.compatibility.internal.CompatibilityFeature.PARALLEL_CONFIGURATION;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_SUPPORTED;
+import static org.gradle.plugin.compatibility.internal.SupportLevel.DECLARED_UNSUPPORTED;
+
+@DisplayName("PluginDescriptors")
+class PluginDescriptorsTest {
+
+    @Test
+    @DisplayName("should write the features in a fixed order after the other lines")
+    void shouldWriteFeaturesInFixedOrder() {
+        FeatureStates states = FeatureStates.NONE
+            .with(PARALLEL_CONFIGURATION, DECLARED_UNSUPPORTED)
+            .with(CONFIGURATION_CACHE, DECLARED_SUPPORTED);
+        String descriptor = "compatibility.feature.parallel-configuration=DECLARED_SUPPORTED\r\n"
+            + "implementation-class=com.example.Plugin\r\n"
+            + "\r\n"
+            + "compatibility.feature.configuration-cache = UNDECLARED\r\n";
+
+        byte[] result = PluginDescriptors.withFeatures(descriptor.getBytes(StandardCharsets.ISO_8859_1), states);
+
+        assertThat(new String(result, StandardCharsets.ISO_8859_1)).isEqualTo(
+            "implementation-class=com.example.Plugin\n"
+                + "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n"
+                + "compatibility.feature.isolated-projects=UNDECLARED\n"
+                + "compatibility.feature.parallel-configuration=DECLARED_UNSUPPORTED\n"
+        );
+        assertThat(PluginDescriptors.withFeatures(result, states)).isEqualTo(result);
+    }
+}
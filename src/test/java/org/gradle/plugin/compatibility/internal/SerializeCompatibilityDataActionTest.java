@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal;
+
+import org.gradle.api.NamedDomainObjectContainer;
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.gradle.plugin.compatibility.PluginCompatibilityExtension;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.plugin.devel.PluginDeclaration;
+import org.gradle.plugin.devel.tasks.GeneratePluginDescriptors;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SerializeCompatibilityDataAction")
+class SerializeCompatibilityDataActionTest {
+    private Project project;
+    private NamedDomainObjectContainer<PluginDeclaration> plugins;
+
+    @BeforeEach
+    void setUp() {
+        project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply("java-gradle-plugin");
+        project.getPluginManager().apply(CompatibilityPlugin.class);
+        plugins = project.getExtensions().getByType(GradlePluginDevelopmentExtension.class).getPlugins();
+    }
+
+    @Test
+    @DisplayName("should share the retained states between identical declarations")
+    void shouldShareStatesOfIdenticalDeclarations() {
+        declare("a", true);
+        declare("b", true);
+        declare("c", false);
+
+        Map<String, Integer> states = createAction().getSerializableCompatibilityData().get();
+
+        assertThat(states.get("a")).isEqualTo(states.get("b")).isNotEqualTo(states.get("c"));
+        assertThat(states.get("a")).isSameAs(states.get("b"));
+        assertThat(states.get("a")).isSameAs(FeatureStates.fromPacked(states.get("a")).toPackedValue());
+    }
+
+    @Test
+    @DisplayName("should resolve the states only once")
+    void shouldResolveOnce() {
+        declare("a", true);
+        Provider<Map<String, Integer>> data = createAction().getSerializableCompatibilityData();
+        Map<String, Integer> first = data.get();
+
+        CompatibilityStrategy.getInstance().configure(
+            plugins.getByName("a"),
+            compatibility -> compatibility.features(features -> features.getConfigurationCache().set(false))
+        );
+
+        assertThat(data.get()).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("should package the index at the protocol location")
+    void shouldPackageIndexAtProtocolLocation() {
+        String resource = SerializeCompatibilityDataAction.INDEX_DIRECTORY
+            + "/" + SerializeCompatibilityDataAction.INDEX_FILE_NAME;
+
+        assertThat(resource).isEqualTo(CompatibilityDeclarationProtocol.INDEX_RESOURCE);
+    }
+
+    private void declare(String id, boolean configurationCache) {
+        PluginDeclaration declaration = plugins.create(id);
+        declaration.setId(id);
+        declaration.setImplementationClass("com.example.Plugin" + id);
+        CompatibilityStrategy.getInstance().configure(
+            declaration,
+            compatibility -> compatibility.features(features ->
+                features.getConfigurationCache().set(configurationCache)
+            )
+        );
+    }
+
+    private SerializeCompatibilityDataAction createAction() {
+        PluginCompatibilityExtension extension = project.getExtensions().getByType(PluginCompatibilityExtension.class);
+        Provider<CompatibilityCatalogService> noCatalog = project.getProviders().provider(() -> null);
+        return project.getObjects().newInstance(
+            SerializeCompatibilityDataAction.class,
+            project,
+            project.getTasks().named(CompatibilityPlugin.PLUGIN_DESCRIPTORS_TASK_NAME, GeneratePluginDescriptors.class)
+                .get(),
+            extension.getDefaults(),
+            extension.getRules(),
+            noCatalog,
+            project.files(),
+            project.getLayout().getBuildDirectory().dir("index")
+        );
+    }
+}
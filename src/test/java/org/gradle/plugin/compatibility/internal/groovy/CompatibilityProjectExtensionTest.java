@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.groovy;
+
+import groovy.lang.Closure;
+import groovy.lang.GroovyObject;
+import org.gradle.api.Project;
+import org.gradle.plugin.compatibility.CompatibilityExtension;
+import org.gradle.plugin.compatibility.CompatibleFeatures;
+import org.gradle.plugin.compatibility.internal.CompatibilityPlugin;
+import org.gradle.plugin.compatibility.internal.CompatibilityStrategy;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.plugin.devel.PluginDeclaration;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompatibilityProjectExtension")
+class CompatibilityProjectExtensionTest {
+
+    @Test
+    @DisplayName("should be called directly by the Groovy DSL, with the configure semantics of the project")
+    void shouldBeCalledThroughCall() {
+        Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply("java-gradle-plugin");
+        project.getPluginManager().apply(CompatibilityPlugin.class);
+        RecordingExtension extension = new RecordingExtension(project);
+        project.getExtensions().getExtraProperties().set("compatibility", extension);
+        PluginDeclaration declaration = project.getExtensions()
+            .getByType(GradlePluginDevelopmentExtension.class)
+            .getPlugins()
+            .create("test");
+        List<Object> delegates = new ArrayList<>();
+        Closure<@Nullable Void> configuration = new Closure<@Nullable Void>(this) {
+            @SuppressWarnings("unused") // Groovy magic
+            public @Nullable Void doCall(CompatibilityExtension target) {
+                delegates.add(getDelegate());
+                target.features(features -> features.getConfigurationCache().set(true));
+                return null;
+            }
+        };
+
+        // What compatibility(declaration) { ... } in a Groovy build script compiles to
+        ((GroovyObject) project).invokeMethod("compatibility", new Object[]{declaration, configuration});
+
+        assertThat(extension.calls).isEqualTo(1);
+        assertThat(delegates).hasSize(1).first().isInstanceOf(CompatibilityExtension.class);
+        assertThat(configuration.getDelegate()).isSameAs(this);
+        CompatibleFeatures features = CompatibilityStrategy.getInstance().extractFeatures(declaration, project);
+        assertThat(features.getConfigurationCache().get()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should explain that the declaration is required")
+    void shouldFailWithoutDeclaration() {
+        Project project = ProjectBuilder.builder().build();
+        Closure<@Nullable Void> configuration = new Closure<@Nullable Void>(this) {
+            @SuppressWarnings("unused") // Groovy magic
+            public @Nullable Void doCall() {
+                return null;
+            }
+        };
+
+        assertThatThrownBy(() -> new RecordingExtension(project).call(configuration))
+            .isInstanceOf(UnsupportedOperationException.class)
+            .hasMessageContaining("Pass PluginDeclaration explicitly");
+    }
+
+    private static class RecordingExtension extends CompatibilityProjectExtension {
+        int calls;
+
+        RecordingExtension(Project owner) {
+            super(owner);
+        }
+
+        @Override
+        public @Nullable Void call(Object... args) {
+            calls++;
+            return super.call(args);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.inject;
+
+import org.gradle.plugin.compatibility.CompatibilityDeclarationProtocol;
+import org.gradle.plugin.compatibility.internal.CompatibilityFeature;
+import org.gradle.plugin.compatibility.internal.FeatureStates;
+import org.gradle.plugin.compatibility.internal.SupportLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompatibilityInjector")
+class CompatibilityInjectorTest {
+    private static final String DESCRIPTOR = "META-INF/gradle-plugins/com.example.properties";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should add the compatibility to the descriptor")
+    void shouldAddCompatibilityToDescriptor() throws IOException {
+        Path source = writeJar("implementation-class=com.example.Plugin\n"
+            + "compatibility.feature.isolated-projects=DECLARED_SUPPORTED\n");
+        Path target = directory.resolve("target.jar");
+
+        assertThat(CompatibilityInjector.inject(source, target, compatibility("com.example"))).containsExactly("com.example");
+
+        assertThat(read(target, DESCRIPTOR)).isEqualTo("implementation-class=com.example.Plugin\n"
+            + "compatibility.feature.configuration-cache=DECLARED_SUPPORTED\n"
+            + "compatibility.feature.isolated-projects=DECLARED_SUPPORTED\n"
+            + "compatibility.feature.parallel-configuration=UNDECLARED\n");
+        assertThat(read(target, CompatibilityDeclarationProtocol.INDEX_RESOURCE)).isEqualTo("com.example="
+            + "configuration-cache:DECLARED_SUPPORTED,isolated-projects:DECLARED_SUPPORTED,"
+            + "parallel-configuration:UNDECLARED\n");
+    }
+
+    @Test
+    @DisplayName("should copy the other entries without recompressing them")
+    void shouldCopyOtherEntriesRaw() throws IOException {
+        Path source = writeJar("implementation-class=com.example.Plugin\n");
+        Path target = directory.resolve("target.jar");
+
+        CompatibilityInjector.inject(source, target, compatibility("com.example"));
+
+        try (ZipFile original = new ZipFile(source.toFile()); ZipFile copy = new ZipFile(target.toFile())) {
+            for (String name : new String[]{"com/example/Plugin.class", "com/example/stored.bin"}) {
+                ZipEntry originalEntry = original.getEntry(name);
+                ZipEntry copiedEntry = copy.getEntry(name);
+                assertThat(copiedEntry.getMethod()).isEqualTo(originalEntry.getMethod());
+                assertThat(copiedEntry.getCompressedSize()).isEqualTo(originalEntry.getCompressedSize());
+                assertThat(copiedEntry.getCrc()).isEqualTo(originalEntry.getCrc());
+                assertThat(read(target, name)).isEqualTo(read(source, name));
+            }
+        }
+        // Also readable by streaming, which relies on the local headers
+        try (InputStream in = Files.newInputStream(target); ZipInputStream zip = new ZipInputStream(in)) {
+            int entries = 0;
+            while (zip.getNextEntry() != null) {
+                entries++;
+            }
+            assertThat(entries).isEqualTo(4);
+        }
+    }
+
+    @Test
+    @DisplayName("should copy jars without declared plugins as is")
+    void shouldCopyJarsWithoutDeclaredPlugins() throws IOException {
+        Path source = writeJar("implementation-class=com.example.Plugin\n");
+        Path target = directory.resolve("target.jar");
+
+        assertThat(CompatibilityInjector.inject(source, target, compatibility("com.other"))).isEmpty();
+
+        assertThat(target).hasSameBinaryContentAs(source);
+    }
+
+    @Test
+    @DisplayName("should reject signed jars whose descriptors would change")
+    void shouldRejectSignedJars() throws IOException {
+        Path source = writeJar("implementation-class=com.example.Plugin\n", "META-INF/SIGNER.SF");
+        Path target = directory.resolve("target.jar");
+
+        assertThatThrownBy(() -> CompatibilityInjector.inject(source, target, compatibility("com.example")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("source.jar is signed");
+        assertThat(target).doesNotExist();
+        assertThat(CompatibilityInjector.inject(source, target, compatibility("com.other"))).isEmpty();
+        assertThat(target).hasSameBinaryContentAs(source);
+    }
+
+    private static Map<String, Integer> compatibility(String pluginId) {
+        return Collections.singletonMap(
+            pluginId,
+            FeatureStates.NONE.with(CompatibilityFeature.CONFIGURATION_CACHE, SupportLevel.DECLARED_SUPPORTED).toPacked()
+        );
+    }
+
+    private Path writeJar(String descriptor, String... emptyEntries) throws IOException {
+        Path jar = directory.resolve("source.jar");
+        try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(DESCRIPTOR));
+            zip.write(descriptor.getBytes(StandardCharsets.ISO_8859_1));
+            zip.closeEntry();
+
+            for (String name : emptyEntries) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.closeEntry();
+            }
+
+            // Deflated, with a data descriptor
+            zip.putNextEntry(new ZipEntry("com/example/Plugin.class"));
+            for (int i = 0; i < 100; i++) {
+                zip.write(("class content " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            zip.closeEntry();
+
+            byte[] stored = "stored content".getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            ZipEntry storedEntry = new ZipEntry("com/example/stored.bin");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            storedEntry.setCrc(crc.getValue());
+            zip.putNextEntry(storedEntry);
+            zip.write(stored);
+            zip.closeEntry();
+        }
+        return jar;
+    }
+
+    private static String read(Path jar, String entry) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile()); InputStream in = zip.getInputStream(zip.getEntry(entry))) {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                result.write(buffer, 0, read);
+            }
+            return new String(result.toByteArray(), StandardCharsets.ISO_8859_1);
+        }
+    }
+}
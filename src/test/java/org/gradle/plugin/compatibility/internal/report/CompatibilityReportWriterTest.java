@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.report;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompatibilityReportWriter")
+class CompatibilityReportWriterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("should merge the indexes sorted by plugin ID")
+    void shouldMergeIndexesSortedByPluginId() throws IOException {
+        Path first = index("a.properties", "com.example.b=configuration-cache:DECLARED_SUPPORTED\n"
+            + "com.example.d=isolated-projects:DECLARED_UNSUPPORTED\n");
+        Path second = index("b.properties", "com.example.a=\ncom.example.c=configuration-cache:DECLARED_UNSUPPORTED\n");
+        Path empty = index("c.properties", "");
+        StringWriter json = new StringWriter();
+        StringWriter html = new StringWriter();
+
+        CompatibilityReportWriter.write(Arrays.asList(first, empty, second), json, html);
+
+        assertThat(json.toString()).isEqualTo("[\n"
+            + "{\"plugin\":\"com.example.a\",\"features\":{\"configuration-cache\":\"UNDECLARED\","
+            + "\"isolated-projects\":\"UNDECLARED\",\"parallel-configuration\":\"UNDECLARED\"}},\n"
+            + "{\"plugin\":\"com.example.b\",\"features\":{\"configuration-cache\":\"DECLARED_SUPPORTED\","
+            + "\"isolated-projects\":\"UNDECLARED\",\"parallel-configuration\":\"UNDECLARED\"}},\n"
+            + "{\"plugin\":\"com.example.c\",\"features\":{\"configuration-cache\":\"DECLARED_UNSUPPORTED\","
+            + "\"isolated-projects\":\"UNDECLARED\",\"parallel-configuration\":\"UNDECLARED\"}},\n"
+            + "{\"plugin\":\"com.example.d\",\"features\":{\"configuration-cache\":\"UNDECLARED\","
+            + "\"isolated-projects\":\"DECLARED_UNSUPPORTED\",\"parallel-configuration\":\"UNDECLARED\"}}\n"
+            + "]\n");
+        assertThat(html.toString())
+            .containsSubsequence("com.example.a", "com.example.b", "com.example.c", "com.example.d")
+            .contains("<td class=\"DECLARED_SUPPORTED\">DECLARED_SUPPORTED</td>")
+            .endsWith("</html>\n");
+    }
+
+    @Test
+    @DisplayName("should write empty reports without indexes")
+    void shouldWriteEmptyReports() throws IOException {
+        StringWriter json = new StringWriter();
+        StringWriter html = new StringWriter();
+
+        CompatibilityReportWriter.write(Collections.emptyList(), json, html);
+
+        assertThat(json.toString()).isEqualTo("[]\n");
+        assertThat(html.toString()).contains("<tbody>\n</tbody>");
+    }
+
+    @Test
+    @DisplayName("should fail on a plugin ID in more than one index")
+    void shouldFailOnDuplicatePluginId() throws IOException {
+        Path first = index("a.properties", "com.example.a=configuration-cache:DECLARED_SUPPORTED\n");
+        Path second = index("b.properties", "com.example.a=configuration-cache:DECLARED_UNSUPPORTED\n");
+
+        assertThatThrownBy(() ->
+            CompatibilityReportWriter.write(Arrays.asList(first, second), new StringWriter(), new StringWriter())
+        )
+            .isInstanceOf(GradleException.class)
+            .hasMessageContaining("Plugin ID 'com.example.a' is declared in both");
+    }
+
+    @Test
+    @DisplayName("should fail on an index that isn't sorted")
+    void shouldFailOnUnsortedIndex() throws IOException {
+        Path index = index("a.properties", "com.example.b=\ncom.example.a=\n");
+
+        assertThatThrownBy(() ->
+            CompatibilityReportWriter.write(Collections.singletonList(index), new StringWriter(), new StringWriter())
+        )
+            .isInstanceOf(GradleException.class)
+            .hasMessageContaining("isn't sorted by plugin ID");
+    }
+
+    private Path index(String name, String content) throws IOException {
+        Path index = tempDir.resolve(name);
+        Files.write(index, content.getBytes(StandardCharsets.ISO_8859_1));
+        return index;
+    }
+}
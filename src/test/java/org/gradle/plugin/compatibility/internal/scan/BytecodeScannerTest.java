@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.TaskAction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("BytecodeScanner")
+class BytecodeScannerTest {
+
+    @Test
+    @DisplayName("should report project access at execution time")
+    void shouldReportProjectAccessAtExecutionTime() throws Exception {
+        Set<ScanFinding> findings = BytecodeScanner.withoutCache().scan(classFiles(ProjectAccessTask.class));
+
+        assertThat(findings)
+            .extracting(ScanFinding::getKind, ScanFinding::getMember)
+            .containsExactly(tuple(ScanFinding.Kind.PROJECT_ACCESS_AT_EXECUTION, "run"));
+    }
+
+    @Test
+    @DisplayName("should report project fields in tasks and their subclasses only")
+    void shouldReportProjectFieldsInTasksOnly() throws Exception {
+        Set<ScanFinding> findings = BytecodeScanner.withoutCache().scan(
+            classFiles(ProjectFieldTask.class, ProjectFieldSubtask.class, ProjectHolder.class)
+        );
+
+        assertThat(findings)
+            .extracting(ScanFinding::getKind, ScanFinding::getClassName, ScanFinding::getMember)
+            .containsExactlyInAnyOrder(
+                tuple(ScanFinding.Kind.PROJECT_FIELD_IN_TASK, ProjectFieldTask.class.getName(), "project"),
+                tuple(ScanFinding.Kind.PROJECT_FIELD_IN_TASK, ProjectFieldSubtask.class.getName(), "other")
+            );
+    }
+
+    @Test
+    @DisplayName("should report build finished listeners")
+    void shouldReportBuildFinishedListeners() throws Exception {
+        Set<ScanFinding> findings = BytecodeScanner.withoutCache().scan(classFiles(BuildFinishedListener.class));
+
+        assertThat(findings)
+            .extracting(ScanFinding::getKind, ScanFinding::getMember)
+            .containsExactly(tuple(ScanFinding.Kind.BUILD_FINISHED_LISTENER, "apply"));
+    }
+
+    @Test
+    @DisplayName("should not report compatible code")
+    void shouldNotReportCompatibleCode() throws Exception {
+        Set<ScanFinding> findings = BytecodeScanner.withoutCache().scan(
+            classFiles(ConfigurationTimeAccessTask.class, ProjectHolder.class)
+        );
+
+        assertThat(findings).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reuse cached facts for unchanged classes")
+    void shouldReuseCachedFacts(@TempDir Path cacheDir) throws Exception {
+        Path cacheFile = cacheDir.resolve("class-facts.bin");
+        List<Path> classes = classFiles(ProjectAccessTask.class, ProjectFieldTask.class);
+
+        BytecodeScanner first = BytecodeScanner.withCache(cacheFile);
+        Set<ScanFinding> expected = first.scan(classes);
+        first.writeCache(cacheFile);
+
+        BytecodeScanner second = BytecodeScanner.withCache(cacheFile);
+        Set<ScanFinding> actual = second.scan(classes);
+
+        assertThat(first.getScannedClasses()).isEqualTo(2);
+        assertThat(second.getScannedClasses()).isZero();
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    private static List<Path> classFiles(Class<?>... classes) throws URISyntaxException {
+        Path root = Paths.get(BytecodeScannerTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path[] result = new Path[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            result[i] = root.resolve(classes[i].getName().replace('.', '/') + ".class");
+        }
+        return Arrays.asList(result);
+    }
+
+    abstract static class ProjectAccessTask extends DefaultTask {
+        @TaskAction
+        void run() {
+            getLogger().lifecycle(getProject().getName());
+        }
+    }
+
+    abstract static class ProjectFieldTask extends DefaultTask {
+        @SuppressWarnings("unused")
+        private Project project;
+
+        ProjectFieldTask() {
+            this.project = getProject();
+        }
+    }
+
+    abstract static class ProjectFieldSubtask extends ProjectFieldTask {
+        @SuppressWarnings("unused")
+        private Project other;
+
+        ProjectFieldSubtask() {
+            this.other = getProject().getRootProject();
+        }
+    }
+
+    abstract static class ConfigurationTimeAccessTask extends DefaultTask {
+        @SuppressWarnings("unused")
+        private final String projectName;
+
+        ConfigurationTimeAccessTask() {
+            projectName = getProject().getName();
+        }
+    }
+
+    static final class ProjectHolder {
+        @SuppressWarnings("unused")
+        private Project project;
+    }
+
+    static final class BuildFinishedListener {
+        @SuppressWarnings("deprecation")
+        void apply(Project project) {
+            project.getGradle().buildFinished(result -> { });
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.compatibility.internal.scan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests the class file parser against classes compiled by real JDKs, rather than by the JDK running the tests. The
+ * classes are in {@code src/test/resources/class-files}, next to their sources, and were compiled against the stubs of
+ * the Gradle API with:
+ * <pre>
+ * javac -source 8 -target 8 -d jdk8 src/stubs/**&#47;*.java src/common/**&#47;*.java        # JDK 8
+ * javac --release 17 -d jdk17 src/stubs/**&#47;*.java src/common/**&#47;*.java src/java17/**&#47;*.java  # JDK 17
+ * javac --release 21 -d jdk21 src/stubs/**&#47;*.java src/common/**&#47;*.java src/java17/**&#47;*.java src/java21/**&#47;*.java  # JDK 21
+ * </pre>
+ * Only the {@code fixture} classes are kept. They use string and table switches, lambdas, string concatenation,
+ * records, sealed types, switch expressions, text blocks, and pattern matching.
+ */
+@DisplayName("ClassFileReader")
+class ClassFileReaderTest {
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"jdk8", "jdk17", "jdk21"})
+    @DisplayName("should read every class compiled by")
+    void shouldReadEveryClass(String compiler) throws Exception {
+        Path root = root(compiler);
+
+        for (Path classFile : classFiles(compiler)) {
+            String expected = root.relativize(classFile).toString().replace('\\', '/').replace(".class", "");
+
+            ClassFacts facts = ClassFileReader.read(Files.readAllBytes(classFile));
+
+            assertThat(facts.getClassName()).isEqualTo(expected);
+            assertThat(facts.getReferencedClasses()).doesNotContain(expected).isSorted();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"jdk8", "jdk17", "jdk21"})
+    @DisplayName("should report the same findings for classes compiled by")
+    void shouldReportFindings(String compiler) throws Exception {
+        Set<ScanFinding> findings = BytecodeScanner.withoutCache().scan(classFiles(compiler));
+
+        assertThat(findings)
+            .extracting(ScanFinding::getKind, ScanFinding::getClassName, ScanFinding::getMember)
+            .contains(
+                tuple(ScanFinding.Kind.BUILD_FINISHED_LISTENER, "fixture.FixturePlugin", "apply"),
+                tuple(ScanFinding.Kind.PROJECT_FIELD_IN_TASK, "fixture.FixtureTask", "owner"),
+                tuple(ScanFinding.Kind.PROJECT_ACCESS_AT_EXECUTION, "fixture.FixtureTask", "lambda$run$0")
+            );
+        assertThat(findings).extracting(ScanFinding::getClassName).doesNotContain("fixture.CleanTask");
+        if (!compiler.equals("jdk8")) {
+            assertThat(findings)
+                .extracting(ScanFinding::getKind, ScanFinding::getClassName, ScanFinding::getMember)
+                .contains(tuple(ScanFinding.Kind.PROJECT_ACCESS_AT_EXECUTION, "fixture.modern.ModernTask", "run"));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"jdk8", "jdk17", "jdk21"})
+    @DisplayName("should attribute the findings to the plugins that reach them, for classes compiled by")
+    void shouldAttributeFindings(String compiler) throws Exception {
+        BytecodeScanner scanner = BytecodeScanner.withoutCache();
+        Set<ScanFinding> findings = scanner.scan(classFiles(compiler));
+
+        assertThat(scanner.findingsReachableFrom("fixture.FixturePlugin", findings))
+            .extracting(ScanFinding::getClassName)
+            .containsOnly("fixture.FixturePlugin", "fixture.FixtureTask")
+            .hasSize(3);
+        assertThat(scanner.findingsReachableFrom("fixture.CleanPlugin", findings)).isEmpty();
+        if (compiler.equals("jdk21")) {
+            assertThat(scanner.findingsReachableFrom("fixture.modern21.PatternPlugin", findings)).isEmpty();
+        }
+        if (!compiler.equals("jdk8")) {
+            assertThat(scanner.findingsReachableFrom("fixture.modern.ModernPlugin", findings))
+                .extracting(ScanFinding::getClassName, ScanFinding::getMember)
+                .containsExactly(tuple("fixture.modern.ModernTask", "run"));
+        }
+    }
+
+    private static Path root(String compiler) throws URISyntaxException {
+        return Paths.get(ClassFileReaderTest.class.getResource("/class-files/" + compiler).toURI());
+    }
+
+    private static List<Path> classFiles(String compiler) throws URISyntaxException, IOException {
+        try (Stream<Path> files = Files.walk(root(compiler))) {
+            return files.filter(file -> file.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugin.compatibility.internal.smoke;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ConfigurationCacheSmokeTest")
+class ConfigurationCacheSmokeTestTest {
+
+    @Test
+    @DisplayName("should detect the version of a Gradle installation")
+    void shouldDetectGradleVersion(@TempDir Path installation) throws IOException {
+        Files.createDirectories(installation.resolve("lib"));
+        Files.createFile(installation.resolve("lib/gradle-core-api-8.14.3.jar"));
+        Files.createFile(installation.resolve("lib/gradle-core-8.14.3.jar"));
+
+        assertThat(ConfigurationCacheSmokeTest.gradleVersion(installation.toFile())).isEqualTo("8.14.3");
+    }
+
+    @Test
+    @DisplayName("should reject directories that aren't Gradle installations")
+    void shouldRejectNonInstallations(@TempDir Path directory) {
+        assertThatThrownBy(() -> ConfigurationCacheSmokeTest.gradleVersion(directory.toFile()))
+            .isInstanceOf(InvalidUserDataException.class)
+            .hasMessageContaining("is not a Gradle installation");
+    }
+
+    @Test
+    @DisplayName("should only reuse results with an outcome")
+    void shouldOnlyReuseOutcomes(@TempDir Path results) throws IOException {
+        Path incompatible = Files.write(results.resolve("incompatible.properties"), Arrays.asList(
+            ConfigurationCacheSmokeTestAction.COMPATIBLE + "=false",
+            ConfigurationCacheSmokeTestAction.REASON + "=the second build didn't reuse the cache entry"
+        ));
+        Path error = Files.write(results.resolve("error.properties"), Collections.singletonList(
+            ConfigurationCacheSmokeTestAction.ERROR + "=Could not run the build"
+        ));
+
+        assertThat(ConfigurationCacheSmokeTest.hasOutcome(incompatible.toFile())).isTrue();
+        assertThat(ConfigurationCacheSmokeTest.hasOutcome(error.toFile())).isFalse();
+        assertThat(ConfigurationCacheSmokeTest.hasOutcome(results.resolve("missing.properties").toFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("should keep the Configuration Cache problems of a failed build")
+    void shouldKeepProblems() {
+        String output = String.join("\n",
+            "> Task :help",
+            "",
+            "FAILURE: Build failed with an exception.",
+            "",
+            "* What went wrong:",
+            "Configuration cache problems found in this build.",
+            "",
+            "1 problem was found storing the configuration cache.",
+            "- Plugin 'org.example': registration of listener on 'Gradle.buildFinished' is unsupported",
+            "",
+            "See the complete report at file:///build/reports/configuration-cache/report.html",
+            "",
+            "* Try:",
+            "> Run with --stacktrace option to get the stack trace.",
+            "",
+            "BUILD FAILED in 1s"
+        );
+
+        assertThat(ConfigurationCacheSmokeTestAction.problems(output)).isEqualTo(String.join("\n",
+            "1 problem was found storing the configuration cache.",
+            "- Plugin 'org.example': registration of listener on 'Gradle.buildFinished' is unsupported",
+            "",
+            "See the complete report at file:///build/reports/configuration-cache/report.html"
+        ));
+        assertThat(ConfigurationCacheSmokeTestAction.problems("Could not resolve all dependencies"))
+            .isEqualTo("Could not resolve all dependencies");
+    }
+}
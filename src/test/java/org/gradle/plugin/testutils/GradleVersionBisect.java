@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.testutils;
+
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.UnexpectedBuildFailure;
+import org.gradle.util.GradleVersion;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Finds the first Gradle version in which the outcome of a fixture build changes, like the version in which
+ * {@code PluginDeclaration} became {@code ExtensionAware}.
+ * <p>
+ * The versions are bisected, so only about log2(n) of them are run. This assumes that the outcome changes once in the
+ * range: if it flips back and forth, one of the changes is found, not necessarily the first one. The versions usually
+ * come from {@link GradleVersionRegistry#getVersions} or {@link #cachedInstallations}, which doesn't download
+ * anything.
+ *
+ * <pre>{@code
+ * Map<GradleVersion, Path> installations = GradleVersionBisect.cachedInstallations(GradleVersionBisect.wrapperDists());
+ * Optional<GradleVersionBisect.Change<Boolean>> change = GradleVersionBisect.bisect(
+ *     new ArrayList<>(installations.keySet()),
+ *     GradleVersionBisect.buildSucceeds(fixtureDir, installations, "help")
+ * );
+ * }</pre>
+ */
+public class GradleVersionBisect {
+    private static final Pattern DISTRIBUTION_NAME = Pattern.compile("gradle-(.+)-(?:bin|all)");
+
+    /**
+     * The last version with the outcome of the oldest version, and the first version with another outcome.
+     */
+    public record Change<T>(GradleVersion lastBefore, T before, GradleVersion firstAfter, T after, int runs) {
+        @Override
+        public String toString() {
+            return "Outcome changed from " + before + " in " + lastBefore.getVersion() + " to " + after + " in "
+                + firstAfter.getVersion() + ", found in " + runs + " runs";
+        }
+    }
+
+    /**
+     * Returns the first version whose outcome differs from the outcome of the oldest version, or nothing if the oldest
+     * and the newest version have the same outcome.
+     *
+     * @param versions the versions to bisect, sorted from oldest to newest
+     * @param outcome runs the fixture with a version; outcomes are compared with {@code equals}
+     */
+    public static <T> Optional<Change<T>> bisect(List<GradleVersion> versions, Function<GradleVersion, T> outcome) {
+        if (versions.size() < 2) {
+            return Optional.empty();
+        }
+        Map<GradleVersion, T> outcomes = new HashMap<>();
+        Function<GradleVersion, T> cached = version -> outcomes.computeIfAbsent(version, outcome);
+
+        int low = 0;
+        int high = versions.size() - 1;
+        T before = cached.apply(versions.get(low));
+        T after = cached.apply(versions.get(high));
+        if (before.equals(after)) {
+            return Optional.empty();
+        }
+        // The outcome at low is the one of the oldest version, and the outcome at high isn't
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            T middleOutcome = cached.apply(versions.get(middle));
+            if (middleOutcome.equals(before)) {
+                low = middle;
+            } else {
+                high = middle;
+                after = middleOutcome;
+            }
+        }
+        return Optional.of(new Change<>(versions.get(low), before, versions.get(high), after, outcomes.size()));
+    }
+
+    /**
+     * Returns an outcome that runs the fixture build with the arguments, and tells whether it succeeds. Every run uses
+     * a fresh copy of the fixture directory, which is deleted afterwards. Errors other than a build failure are
+     * rethrown.
+     *
+     * @param installations the installations to use instead of downloading the versions, see
+     *     {@link #cachedInstallations}
+     */
+    public static Function<GradleVersion, Boolean> buildSucceeds(
+        Path fixtureDir,
+        Map<GradleVersion, Path> installations,
+        String... arguments
+    ) {
+        return version -> {
+            Path projectDir = copyFixture(fixtureDir);
+            GradleRunner runner = GradleRunner.create()
+                .withProjectDir(projectDir.toFile())
+                .withArguments(arguments);
+            Path installation = installations.get(version);
+            if (installation != null) {
+                runner.withGradleInstallation(installation.toFile());
+            } else {
+                runner.withGradleVersion(version.getVersion());
+            }
+            try {
+                runner.build();
+                return true;
+            } catch (UnexpectedBuildFailure ex) {
+                // Anything else, like a version that can't be started, isn't an outcome of the fixture
+                return false;
+            } finally {
+                deleteRecursively(projectDir);
+            }
+        };
+    }
+
+    /**
+     * Returns the directory of the distributions downloaded by the Gradle wrapper.
+     */
+    public static Path wrapperDists() {
+        String gradleUserHome = System.getenv("GRADLE_USER_HOME");
+        Path home = gradleUserHome != null
+            ? Paths.get(gradleUserHome)
+            : Paths.get(System.getProperty("user.home"), ".gradle");
+        return home.resolve("wrapper/dists");
+    }
+
+    /**
+     * Returns the unpacked Gradle installations in a directory laid out like {@link #wrapperDists()}, sorted by
+     * version.
+     */
+    public static Map<GradleVersion, Path> cachedInstallations(Path distsDir) {
+        Map<GradleVersion, Path> result = new TreeMap<>();
+        if (!Files.isDirectory(distsDir)) {
+            return result;
+        }
+        try (Stream<Path> distributions = Files.list(distsDir)) {
+            for (Path distribution : distributions.toList()) {
+                Matcher matcher = DISTRIBUTION_NAME.matcher(distribution.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                // Unpacked to <hash>/gradle-<version>
+                Path installation = findInstallation(distribution, "gradle-" + matcher.group(1));
+                if (installation != null) {
+                    result.putIfAbsent(GradleVersion.version(matcher.group(1)), installation);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return result;
+    }
+
+    private static @Nullable Path findInstallation(Path distribution, String name) throws IOException {
+        try (Stream<Path> hashes = Files.list(distribution)) {
+            return hashes
+                .map(hash -> hash.resolve(name))
+                .filter(installation -> Files.isDirectory(installation.resolve("lib")))
+                .findFirst()
+                .orElse(null);
+        }
+    }
+
+    private static Path copyFixture(Path fixtureDir) {
+        try {
+            Path copy = Files.createTempDirectory("gradle-bisect");
+            try (Stream<Path> paths = Files.walk(fixtureDir)) {
+                for (Path source : paths.toList()) {
+                    Path target = copy.resolve(fixtureDir.relativize(source).toString());
+                    if (Files.isDirectory(source)) {
+                        Files.createDirectories(target);
+                    } else {
+                        Files.copy(source, target);
+                    }
+                }
+            }
+            return copy;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugin.testutils;
+
+import org.gradle.testkit.runner.UnexpectedBuildFailure;
+import org.gradle.util.GradleVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("GradleVersionBisect")
+class GradleVersionBisectTest {
+    private static final List<GradleVersion> VERSIONS = IntStream.rangeClosed(0, 99)
+        .mapToObj(minor -> GradleVersion.version("8." + minor))
+        .collect(Collectors.toList());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("should find the first version with another outcome in logarithmic runs")
+    void shouldFindFirstChange() {
+        for (int changed = 1; changed < VERSIONS.size(); changed++) {
+            GradleVersion firstAfter = VERSIONS.get(changed);
+            AtomicInteger runs = new AtomicInteger();
+            Function<GradleVersion, String> outcome = version -> {
+                runs.incrementAndGet();
+                return version.compareTo(firstAfter) < 0 ? "old" : "new";
+            };
+
+            Optional<GradleVersionBisect.Change<String>> change = GradleVersionBisect.bisect(VERSIONS, outcome);
+
+            assertThat(change).hasValueSatisfying(it -> {
+                assertThat(it.lastBefore()).isEqualTo(VERSIONS.get(changed - 1));
+                assertThat(it.before()).isEqualTo("old");
+                assertThat(it.firstAfter()).isEqualTo(firstAfter);
+                assertThat(it.after()).isEqualTo("new");
+                assertThat(it.runs()).isEqualTo(runs.get());
+            });
+            // Both ends, and then ceil(log2(99)) = 7 steps at most
+            assertThat(runs.get()).isLessThanOrEqualTo(9);
+        }
+    }
+
+    @Test
+    @DisplayName("should find nothing if the oldest and the newest version have the same outcome")
+    void shouldFindNothingWithoutChange() {
+        AtomicInteger runs = new AtomicInteger();
+
+        Optional<GradleVersionBisect.Change<Boolean>> change = GradleVersionBisect.bisect(VERSIONS, version -> {
+            runs.incrementAndGet();
+            return true;
+        });
+
+        assertThat(change).isEmpty();
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(GradleVersionBisect.bisect(VERSIONS.subList(0, 1), version -> true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should rethrow errors other than build failures")
+    void shouldRethrowErrorsOtherThanBuildFailures() throws IOException {
+        Path fixtureDir = Files.createDirectories(tempDir.resolve("fixture"));
+        Files.write(fixtureDir.resolve("settings.gradle"), new byte[0]);
+        GradleVersion version = GradleVersion.version("9.1");
+        Function<GradleVersion, Boolean> outcome = GradleVersionBisect.buildSucceeds(
+            fixtureDir,
+            Collections.singletonMap(version, tempDir.resolve("missing-installation")),
+            "help"
+        );
+
+        assertThatThrownBy(() -> outcome.apply(version)).isNotInstanceOf(UnexpectedBuildFailure.class);
+    }
+
+    @Test
+    @DisplayName("should list the unpacked wrapper distributions sorted by version")
+    void shouldListCachedInstallations() throws IOException {
+        Path newer = installation("gradle-9.1.0-bin", "abc", "gradle-9.1.0");
+        Path older = installation("gradle-8.14.3-all", "def", "gradle-8.14.3");
+        // Still downloading or unpacking
+        Files.createDirectories(tempDir.resolve("gradle-8.10-bin/ghi"));
+        Files.createDirectories(tempDir.resolve("unrelated"));
+
+        Map<GradleVersion, Path> installations = GradleVersionBisect.cachedInstallations(tempDir);
+
+        assertThat(new ArrayList<>(installations.keySet()))
+            .containsExactly(GradleVersion.version("8.14.3"), GradleVersion.version("9.1.0"));
+        assertThat(installations.values()).containsExactly(older, newer);
+        assertThat(GradleVersionBisect.cachedInstallations(tempDir.resolve("missing"))).isEmpty();
+    }
+
+    private Path installation(String distribution, String hash, String name) throws IOException {
+        Path installation = tempDir.resolve(distribution).resolve(hash).resolve(name);
+        Files.createDirectories(installation.resolve("lib"));
+        return installation;
+    }
+}
@@ -0,0 +1,24 @@
+package fixture;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+
+public class CleanPlugin implements Plugin<Project> {
+    @Override
+    public void apply(Project project) {
+        Registration[] registrations = {new Registration("clean", CleanTask.class)};
+        for (Registration registration : registrations) {
+            project.getTasks().register(registration.name, registration.type);
+        }
+    }
+
+    static final class Registration {
+        final String name;
+        final Class<?> type;
+
+        Registration(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
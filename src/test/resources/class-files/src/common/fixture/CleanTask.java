@@ -0,0 +1,17 @@
+package fixture;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.TaskAction;
+
+public abstract class CleanTask extends DefaultTask {
+    private final String projectName;
+
+    public CleanTask() {
+        projectName = getProject().getName();
+    }
+
+    @TaskAction
+    void run() {
+        getLogger().lifecycle("cleaning " + projectName);
+    }
+}
@@ -0,0 +1,12 @@
+package fixture;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+
+public class FixturePlugin implements Plugin<Project> {
+    @Override
+    public void apply(Project project) {
+        project.getTasks().register("fixture", FixtureTask.class);
+        project.getGradle().buildFinished(result -> project.getLogger().lifecycle("finished " + result));
+    }
+}
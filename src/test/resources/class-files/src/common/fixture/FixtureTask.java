@@ -0,0 +1,43 @@
+package fixture;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.TaskAction;
+
+public abstract class FixtureTask extends DefaultTask {
+    private final Project owner;
+    private final long threshold = 1L << 40;
+    private final double ratio = 2.5;
+
+    public FixtureTask() {
+        owner = getProject();
+    }
+
+    @TaskAction
+    void run() {
+        String[] names = {"alpha", "beta", owner.getName()};
+        int total = 0;
+        for (String name : names) {
+            switch (name) {
+                case "alpha":
+                    total += 1;
+                    break;
+                case "beta":
+                    total += 2;
+                    break;
+                default:
+                    total += name.length();
+            }
+        }
+        switch (total) {
+            case 1: case 2: case 3: case 4:
+                total *= 2;
+                break;
+            default:
+                break;
+        }
+        int count = total;
+        Runnable report = () -> getLogger().lifecycle(getProject().getName() + " " + count + " " + threshold * ratio);
+        report.run();
+    }
+}
@@ -0,0 +1,11 @@
+package fixture.modern;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+
+public class ModernPlugin implements Plugin<Project> {
+    @Override
+    public void apply(Project project) {
+        project.getTasks().register("modern", ModernTask.class);
+    }
+}
@@ -0,0 +1,30 @@
+package fixture.modern;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.TaskAction;
+
+public abstract class ModernTask extends DefaultTask {
+    @TaskAction
+    void run() {
+        var shapes = new Shape[] {new Shape.Circle(1), new Shape.Square(2)};
+        double area = 0;
+        for (Shape shape : shapes) {
+            if (shape instanceof Shape.Circle circle) {
+                area += Math.PI * circle.radius() * circle.radius();
+            } else if (shape instanceof Shape.Square square) {
+                area += square.side() * square.side();
+            }
+        }
+        String size = switch ((int) area) {
+            case 0 -> "empty";
+            case 1, 2, 3 -> "small";
+            default -> {
+                String text = """
+                    large
+                    """;
+                yield text.strip();
+            }
+        };
+        getLogger().lifecycle(getProject().getName() + ": " + size);
+    }
+}
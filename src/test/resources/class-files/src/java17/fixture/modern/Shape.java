@@ -0,0 +1,9 @@
+package fixture.modern;
+
+public sealed interface Shape permits Shape.Circle, Shape.Square {
+    record Circle(double radius) implements Shape {
+    }
+
+    record Square(double side) implements Shape {
+    }
+}
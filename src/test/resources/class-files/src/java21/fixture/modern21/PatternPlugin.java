@@ -0,0 +1,37 @@
+package fixture.modern21;
+
+import fixture.modern.Shape;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+
+public class PatternPlugin implements Plugin<Project> {
+    enum Color { RED, GREEN }
+
+    @Override
+    public void apply(Project project) {
+        Object[] values = {new Shape.Circle(1), new Shape.Square(2), Color.RED, "text"};
+        for (Object value : values) {
+            project.getLogger().lifecycle(describe(value) + " " + colorName(Color.GREEN));
+        }
+    }
+
+    static String describe(Object value) {
+        return switch (value) {
+            case Shape.Circle(double radius) when radius > 10 -> "large circle";
+            case Shape.Circle(double radius) -> "circle " + radius;
+            case Shape.Square square -> "square " + square.side();
+            case Color color when color == Color.RED -> "red";
+            case Color color -> "color " + color;
+            case String text -> text;
+            default -> "unknown";
+        };
+    }
+
+    static String colorName(Color color) {
+        return switch (color) {
+            case Color c when c == Color.GREEN -> "green";
+            case RED -> "red";
+            default -> "other";
+        };
+    }
+}
@@ -0,0 +1,5 @@
+package org.gradle.api;
+
+public interface Action<T> {
+    void execute(T t);
+}
@@ -0,0 +1,13 @@
+package org.gradle.api;
+
+import org.gradle.api.logging.Logger;
+
+public abstract class DefaultTask {
+    public Project getProject() {
+        throw new UnsupportedOperationException();
+    }
+
+    public Logger getLogger() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,15 @@
+package org.gradle.api;
+
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.TaskContainer;
+
+public interface Project {
+    String getName();
+
+    Gradle getGradle();
+
+    Logger getLogger();
+
+    TaskContainer getTasks();
+}
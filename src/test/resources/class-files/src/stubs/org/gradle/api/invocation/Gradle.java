@@ -0,0 +1,7 @@
+package org.gradle.api.invocation;
+
+import org.gradle.api.Action;
+
+public interface Gradle {
+    void buildFinished(Action<? super Object> action);
+}
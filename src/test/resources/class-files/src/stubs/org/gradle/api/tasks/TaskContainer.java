@@ -0,0 +1,5 @@
+package org.gradle.api.tasks;
+
+public interface TaskContainer {
+    Object register(String name, Class<?> type);
+}